@@ -0,0 +1,126 @@
+package io.github.mcengine.mceconomy.api.account;
+
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of every currency balance held by a single account.
+ * Backed by primitive fields so a snapshot costs a single small allocation.
+ */
+public final class AccountBalance {
+
+    /**
+     * A balance with every currency set to 0.
+     */
+    public static final AccountBalance EMPTY = new AccountBalance(0, 0, 0, 0);
+
+    private final int coin;
+    private final int copper;
+    private final int silver;
+    private final int gold;
+
+    /**
+     * Constructs a new balance snapshot.
+     *
+     * @param coin   The COIN balance.
+     * @param copper The COPPER balance.
+     * @param silver The SILVER balance.
+     * @param gold   The GOLD balance.
+     */
+    public AccountBalance(int coin, int copper, int silver, int gold) {
+        this.coin = coin;
+        this.copper = copper;
+        this.silver = silver;
+        this.gold = gold;
+    }
+
+    /**
+     * Builds a snapshot from an array indexed by {@link CurrencyType#ordinal()}.
+     *
+     * @param values The balances, one per currency type.
+     * @return A new balance snapshot.
+     */
+    public static AccountBalance of(int[] values) {
+        return new AccountBalance(
+                values[CurrencyType.COIN.ordinal()],
+                values[CurrencyType.COPPER.ordinal()],
+                values[CurrencyType.SILVER.ordinal()],
+                values[CurrencyType.GOLD.ordinal()]);
+    }
+
+    /**
+     * Retrieves the balance of a specific currency.
+     *
+     * @param type The currency type.
+     * @return The stored amount.
+     */
+    public int get(CurrencyType type) {
+        Objects.requireNonNull(type, "currency type");
+        return switch (type) {
+            case COIN -> coin;
+            case COPPER -> copper;
+            case SILVER -> silver;
+            case GOLD -> gold;
+        };
+    }
+
+    /**
+     * @return The COIN balance.
+     */
+    public int getCoin() {
+        return coin;
+    }
+
+    /**
+     * @return The COPPER balance.
+     */
+    public int getCopper() {
+        return copper;
+    }
+
+    /**
+     * @return The SILVER balance.
+     */
+    public int getSilver() {
+        return silver;
+    }
+
+    /**
+     * @return The GOLD balance.
+     */
+    public int getGold() {
+        return gold;
+    }
+
+    /**
+     * Copies the balances into a new array indexed by {@link CurrencyType#ordinal()}.
+     *
+     * @return A mutable copy of the balances.
+     */
+    public int[] toArray() {
+        int[] values = new int[CurrencyType.values().length];
+        values[CurrencyType.COIN.ordinal()] = coin;
+        values[CurrencyType.COPPER.ordinal()] = copper;
+        values[CurrencyType.SILVER.ordinal()] = silver;
+        values[CurrencyType.GOLD.ordinal()] = gold;
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AccountBalance other)) return false;
+        return coin == other.coin && copper == other.copper && silver == other.silver && gold == other.gold;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((coin * 31 + copper) * 31 + silver) * 31 + gold;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountBalance{coin=" + coin + ", copper=" + copper + ", silver=" + silver + ", gold=" + gold + "}";
+    }
+}
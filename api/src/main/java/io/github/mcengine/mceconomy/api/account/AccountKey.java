@@ -0,0 +1,110 @@
+package io.github.mcengine.mceconomy.api.account;
+
+import java.util.Objects;
+
+/**
+ * Immutable identifier of an economy account.
+ * Combines the account UUID with its account type, mirroring the composite
+ * primary key of the economy_accounts table.
+ */
+public final class AccountKey {
+
+    /**
+     * The UUID of the account (Player, Clan, Guild).
+     */
+    private final String accountUuid;
+
+    /**
+     * The interned type of account (e.g., PLAYER, CLAN, GUILD).
+     */
+    private final AccountType accountType;
+
+    /**
+     * Cached hash code, keys are used heavily as map keys.
+     */
+    private final int hash;
+
+    /**
+     * Constructs a new account key.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     */
+    public AccountKey(String accountUuid, String accountType) {
+        this(accountUuid, AccountType.of(accountType));
+    }
+
+    /**
+     * Constructs a new account key from an interned account type.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     */
+    public AccountKey(String accountUuid, AccountType accountType) {
+        this.accountUuid = Objects.requireNonNull(accountUuid, "account uuid");
+        this.accountType = Objects.requireNonNull(accountType, "account type");
+        this.hash = 31 * accountUuid.hashCode() + accountType.getId();
+    }
+
+    /**
+     * Shorthand factory for {@link #AccountKey(String, String)}.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return A new account key.
+     */
+    public static AccountKey of(String accountUuid, String accountType) {
+        return new AccountKey(accountUuid, accountType);
+    }
+
+    /**
+     * Shorthand factory for {@link #AccountKey(String, AccountType)}.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return A new account key.
+     */
+    public static AccountKey of(String accountUuid, AccountType accountType) {
+        return new AccountKey(accountUuid, accountType);
+    }
+
+    /**
+     * @return The UUID of the account.
+     */
+    public String getAccountUuid() {
+        return accountUuid;
+    }
+
+    /**
+     * @return The name of the account type.
+     */
+    public String getAccountType() {
+        return accountType.getName();
+    }
+
+    /**
+     * @return The interned account type.
+     */
+    public AccountType getType() {
+        return accountType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AccountKey other)) return false;
+        return hash == other.hash
+                && accountUuid.equals(other.accountUuid)
+                && accountType == other.accountType;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return accountType + ":" + accountUuid;
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.mcengine.mceconomy.api.account;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interned account type such as {@code PLAYER}, {@code CLAN} or {@code GUILD}.
+ * <p>
+ * Every name maps to exactly one instance with a small integer id assigned on registration,
+ * so account types can be compared by identity and used as array indexes or cheap map keys.
+ * Ids are process-local and must not be persisted.
+ * </p>
+ * <p>
+ * The registry only grows: a registered name is never released. At most {@value #MAX_TYPES} names
+ * can be registered, so names must come from a bounded set and not from unchecked input.
+ * </p>
+ */
+public final class AccountType {
+
+    /**
+     * Maximum number of registered types; ids fit in a {@code short}.
+     */
+    public static final int MAX_TYPES = Short.MAX_VALUE + 1;
+
+    /**
+     * Registered types by name.
+     */
+    private static final ConcurrentMap<String, AccountType> BY_NAME = new ConcurrentHashMap<>();
+
+    /**
+     * Registered types by id; replaced on growth, guarded by the class monitor for writes.
+     */
+    private static volatile AccountType[] byId = new AccountType[8];
+
+    /**
+     * Number of registered types, also the next id to assign.
+     */
+    private static int count;
+
+    /**
+     * Player accounts.
+     */
+    public static final AccountType PLAYER = of("PLAYER");
+
+    /**
+     * The process-local id of this type.
+     */
+    private final int id;
+
+    /**
+     * The name stored in the database.
+     */
+    private final String name;
+
+    private AccountType(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Returns the interned type for a name, registering it on first use.
+     * Registered names are kept for the lifetime of the process.
+     *
+     * @param name The account type name as stored in the database.
+     * @return The unique instance for that name.
+     * @throws IllegalStateException If the name is new and {@value #MAX_TYPES} types are already registered.
+     */
+    public static AccountType of(String name) {
+        AccountType type = BY_NAME.get(Objects.requireNonNull(name, "account type"));
+        return type != null ? type : register(name);
+    }
+
+    /**
+     * Looks up a registered type by id.
+     *
+     * @param id The id returned by {@link #getId()}.
+     * @return The type, or null if no type has that id.
+     */
+    public static AccountType byId(int id) {
+        AccountType[] types = byId;
+        return id >= 0 && id < types.length ? types[id] : null;
+    }
+
+    /**
+     * @return The number of registered types; ids range from 0 to this value minus one.
+     */
+    public static synchronized int count() {
+        return count;
+    }
+
+    private static synchronized AccountType register(String name) {
+        AccountType existing = BY_NAME.get(name);
+        if (existing != null) return existing;
+        if (count == MAX_TYPES) throw new IllegalStateException("Too many account types registered, cannot add " + name);
+
+        AccountType type = new AccountType(count, name);
+        AccountType[] types = byId;
+        if (count == types.length) types = Arrays.copyOf(types, types.length * 2);
+        types[count++] = type;
+        byId = types;
+        BY_NAME.put(name, type);
+        return type;
+    }
+
+    /**
+     * @return The process-local id of this type.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return The name stored in the database.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.mcengine.mceconomy.api.database;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous interface for MCEconomy database operations.
+ * <p>
+ * Backends implement this alongside {@link IMCEconomyDB} when they can complete operations on their
+ * own I/O threads (for example a writer thread that commits in groups), so callers neither hop through
+ * a shared scheduler nor block a pooled thread while waiting. Backends that only implement
+ * {@link IMCEconomyDB} are adapted by running each blocking call on an executor.
+ * </p>
+ * <p>
+ * Returned futures may complete on a backend thread; dependent actions should be cheap or use an
+ * explicit executor.
+ * </p>
+ */
+public interface IMCEconomyAsyncDB {
+
+    /**
+     * Retrieves the balance for a specific coin type.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @return A future completing with the amount stored in the database.
+     */
+    CompletableFuture<Integer> getCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType);
+
+    /**
+     * Retrieves the balance of every currency type at once.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @return A future completing with the balances, or {@link AccountBalance#EMPTY} if the account does not exist.
+     */
+    CompletableFuture<AccountBalance> getAllCoinsAsync(String accountUuid, AccountType accountType);
+
+    /**
+     * Retrieves the balance of one coin type for many accounts at once.
+     * @param accounts The accounts to look up.
+     * @param coinType The currency type.
+     * @return A future completing with a map containing every requested account; missing accounts map to 0.
+     */
+    CompletableFuture<Map<AccountKey, Integer>> getCoinsAsync(Collection<AccountKey> accounts, CurrencyType coinType);
+
+    /**
+     * Sets an account's balance to a specific amount.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @param amount The new balance.
+     * @return A future completing with true if the update was successful.
+     */
+    CompletableFuture<Boolean> setCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount);
+
+    /**
+     * Increases an account's balance.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @param amount The amount to add.
+     * @return A future completing with true if the addition was successful.
+     */
+    CompletableFuture<Boolean> addCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount);
+
+    /**
+     * Decreases an account's balance if it has sufficient funds.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @param amount The amount to subtract.
+     * @return A future completing with true if successful, false if insufficient funds or error.
+     */
+    CompletableFuture<Boolean> minusCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount);
+
+    /**
+     * Transfers coins from one account to another.
+     * @param senderUuid The UUID of the sender.
+     * @param senderType The interned account type of the sender.
+     * @param receiverUuid The UUID of the receiver.
+     * @param receiverType The interned account type of the receiver.
+     * @param coinType The currency type.
+     * @param amount The amount to transfer.
+     * @return A future completing with true if the transfer was completed successfully.
+     */
+    CompletableFuture<Boolean> sendCoinAsync(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType,
+                                             CurrencyType coinType, int amount);
+
+    /**
+     * Creates an account with default values if it does not exist.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @return A future completing with true if the account exists or was created.
+     */
+    CompletableFuture<Boolean> ensureAccountExistAsync(String accountUuid, AccountType accountType);
+
+    /**
+     * Writes the complete balance of several accounts, creating missing accounts.
+     * @param balances The balances to store, keyed by account.
+     * @return A future completing with true if every account was written.
+     */
+    CompletableFuture<Boolean> setBalancesAsync(Map<AccountKey, AccountBalance> balances);
+
+    /**
+     * Adds an amount of one coin type to several accounts, creating missing accounts.
+     * @param amounts The amount to add to each account; every amount must be positive.
+     * @param coinType The currency type.
+     * @return A future completing with true if every account was credited.
+     */
+    CompletableFuture<Boolean> addCoinBulkAsync(Map<AccountKey, Integer> amounts, CurrencyType coinType);
+
+    /**
+     * Closes the database, completing or failing outstanding operations.
+     */
+    void close();
+}
@@ -1,7 +1,16 @@
 package io.github.mcengine.mceconomy.api.database;
 
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
 /**
  * Interface for MCEconomy database operations.
  * Supports multiple account types (Player, Clan, Guild) and coin types.
@@ -17,6 +26,91 @@ public interface IMCEconomyDB {
      */
     int getCoin(String accountUuid, String accountType, CurrencyType coinType);
 
+    /**
+     * Retrieves the balance of every currency type at once.
+     * Implementations should read all currency columns with a single query.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return The balances of the account, or {@link AccountBalance#EMPTY} if it does not exist.
+     */
+    default AccountBalance getAllCoins(String accountUuid, String accountType) {
+        int[] values = new int[CurrencyType.values().length];
+        for (CurrencyType type : CurrencyType.values()) {
+            values[type.ordinal()] = getCoin(accountUuid, accountType, type);
+        }
+        return AccountBalance.of(values);
+    }
+
+    /**
+     * Loads the balance of every currency type from the authoritative copy of the data.
+     * Unlike {@link #getAllCoins}, a failed read is reported instead of being returned as an empty balance,
+     * and replicated backends read from the primary, so the result can be cached as the account's true balance.
+     * The default implementation delegates to {@link #getAllCoins} and suits backends whose reads cannot fail.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account (e.g., "PLAYER", "CLAN").
+     * @return The balances, or {@link AccountBalance#EMPTY} if the account does not exist.
+     * @throws MCEconomyDatabaseException If the balances could not be read.
+     */
+    default AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        return getAllCoins(accountUuid, accountType);
+    }
+
+    /**
+     * Reads the balance of every currency type, reporting a failed read like {@link #loadAllCoins}.
+     * Unlike {@link #loadAllCoins}, replicated backends may answer from a replica that is in sync with
+     * the caller's own recent writes, so the result suits read caches but not authoritative write-back.
+     * The default implementation delegates to {@link #loadAllCoins}.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account (e.g., "PLAYER", "CLAN").
+     * @return The balances, or {@link AccountBalance#EMPTY} if the account does not exist.
+     * @throws MCEconomyDatabaseException If the balances could not be read.
+     */
+    default AccountBalance readAllCoins(String accountUuid, String accountType) {
+        return loadAllCoins(accountUuid, accountType);
+    }
+
+    /**
+     * Retrieves the balance of one coin type for many accounts at once.
+     * Implementations should use a small number of batched queries instead of one query per account.
+     * @param accounts The accounts to look up.
+     * @param coinType The currency type.
+     * @return A map containing every requested account; missing accounts map to 0.
+     */
+    default Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        for (AccountKey key : accounts) {
+            result.put(key, getCoin(key.getAccountUuid(), key.getAccountType(), coinType));
+        }
+        return result;
+    }
+
+    /**
+     * Loads the balance of one coin type for many accounts from the authoritative copy of the data.
+     * Unlike {@link #getCoins}, a failed read is reported instead of being returned as zeros,
+     * so the result can be cached as the accounts' true balances.
+     * The default implementation delegates to {@link #getCoins} and suits backends whose reads cannot fail.
+     * @param accounts The accounts to look up.
+     * @param coinType The currency type.
+     * @return A map containing every requested account; missing accounts map to 0.
+     * @throws MCEconomyDatabaseException If the balances could not be read.
+     */
+    default Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return getCoins(accounts, coinType);
+    }
+
+    /**
+     * Reads the balance of one coin type for many accounts, reporting a failed read like {@link #loadCoins}.
+     * Replicated backends may answer from a replica, as with {@link #readAllCoins}.
+     * The default implementation delegates to {@link #loadCoins}.
+     * @param accounts The accounts to look up.
+     * @param coinType The currency type.
+     * @return A map containing every requested account; missing accounts map to 0.
+     * @throws MCEconomyDatabaseException If the balances could not be read.
+     */
+    default Map<AccountKey, Integer> readCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return loadCoins(accounts, coinType);
+    }
+
     /**
      * Sets an account's balance to a specific amount.
      * @param accountUuid The UUID of the account.
@@ -68,6 +162,152 @@ public interface IMCEconomyDB {
      */
     boolean ensureAccountExist(String accountUuid, String accountType);
 
+    /**
+     * Writes the complete balance of several accounts, creating missing accounts.
+     * Implementations should apply the whole batch in a single transaction.
+     * The default implementation falls back to individual {@link #setCoin} calls and is not atomic.
+     * @param balances The balances to store, keyed by account.
+     * @return true if every account was written, false if a database error occurred.
+     */
+    default boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        boolean success = true;
+        for (Map.Entry<AccountKey, AccountBalance> entry : balances.entrySet()) {
+            AccountKey key = entry.getKey();
+            for (CurrencyType type : CurrencyType.values()) {
+                success &= setCoin(key.getAccountUuid(), key.getAccountType(), type, entry.getValue().get(type));
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Adds an amount of one coin type to several accounts, creating missing accounts.
+     * Implementations should apply the whole batch in a single transaction.
+     * The default implementation falls back to individual {@link #addCoin} calls and is not atomic.
+     * @param amounts The amount to add to each account; every amount must be positive.
+     * @param coinType The currency type.
+     * @return true if every account was credited, false if an amount was not positive or a database error occurred.
+     */
+    default boolean addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        for (int amount : amounts.values()) {
+            if (amount <= 0) return false;
+        }
+        boolean success = true;
+        for (Map.Entry<AccountKey, Integer> entry : amounts.entrySet()) {
+            AccountKey key = entry.getKey();
+            success &= addCoin(key.getAccountUuid(), key.getAccountType(), coinType, entry.getValue());
+        }
+        return success;
+    }
+
+    /**
+     * Adds the same amount of one coin type to several accounts, creating missing accounts.
+     * @param accounts The accounts to credit.
+     * @param coinType The currency type.
+     * @param amount The amount to add to each account.
+     * @return true if every account was credited, false if the amount was not positive or a database error occurred.
+     */
+    default boolean addCoinBulk(Collection<AccountKey> accounts, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        Map<AccountKey, Integer> amounts = new LinkedHashMap<>(Math.max(16, accounts.size() * 2));
+        for (AccountKey key : accounts) amounts.put(key, amount);
+        return addCoinBulk(amounts, coinType);
+    }
+
+    /**
+     * Streams every stored account to an action, one row at a time, without loading the table into memory.
+     * Exceptions thrown by the action abort the scan and are rethrown to the caller.
+     * The default implementation cannot enumerate accounts and returns false.
+     * @param action Receives each account and its balances on the calling thread.
+     * @return true if every account was visited, false if enumeration is not supported or a database error occurred.
+     */
+    default boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        return false;
+    }
+
+    // --- AccountType overloads ---
+
+    /**
+     * Retrieves the balance for a specific coin type.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @return The amount stored in the database.
+     */
+    default int getCoin(String accountUuid, AccountType accountType, CurrencyType coinType) {
+        return getCoin(accountUuid, accountType.getName(), coinType);
+    }
+
+    /**
+     * Retrieves the balance of every currency type at once.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @return The balances of the account, or {@link AccountBalance#EMPTY} if it does not exist.
+     */
+    default AccountBalance getAllCoins(String accountUuid, AccountType accountType) {
+        return getAllCoins(accountUuid, accountType.getName());
+    }
+
+    /**
+     * Sets an account's balance to a specific amount.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @param amount The new balance.
+     * @return true if the update was successful, false otherwise.
+     */
+    default boolean setCoin(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return setCoin(accountUuid, accountType.getName(), coinType, amount);
+    }
+
+    /**
+     * Increases an account's balance.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @param amount The amount to add.
+     * @return true if the addition was successful, false otherwise.
+     */
+    default boolean addCoin(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return addCoin(accountUuid, accountType.getName(), coinType, amount);
+    }
+
+    /**
+     * Decreases an account's balance.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType The currency type.
+     * @param amount The amount to subtract.
+     * @return true if the subtraction was successful, false if insufficient funds or error.
+     */
+    default boolean minusCoin(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return minusCoin(accountUuid, accountType.getName(), coinType, amount);
+    }
+
+    /**
+     * Transfers coins from one account to another.
+     * @param senderUuid The UUID of the sender.
+     * @param senderType The interned account type of the sender.
+     * @param receiverUuid The UUID of the receiver.
+     * @param receiverType The interned account type of the receiver.
+     * @param coinType The currency type.
+     * @param amount The amount to transfer.
+     * @return true if the transfer was completed successfully, false otherwise.
+     */
+    default boolean sendCoin(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType, CurrencyType coinType, int amount) {
+        return sendCoin(senderUuid, senderType.getName(), receiverUuid, receiverType.getName(), coinType, amount);
+    }
+
+    /**
+     * Checks if an account exists in the database; if not, creates a record with default values.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @return true if the account exists or was successfully created, false if a database error occurred.
+     */
+    default boolean ensureAccountExist(String accountUuid, AccountType accountType) {
+        return ensureAccountExist(accountUuid, accountType.getName());
+    }
+
     /**
      * Closes the database connection safely.
      */
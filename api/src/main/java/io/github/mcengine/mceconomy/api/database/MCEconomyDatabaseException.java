@@ -0,0 +1,16 @@
+package io.github.mcengine.mceconomy.api.database;
+
+/**
+ * Thrown by database operations that must not hide a failed read behind a default value,
+ * such as {@link IMCEconomyDB#loadAllCoins(String, String)}.
+ */
+public class MCEconomyDatabaseException extends RuntimeException {
+
+    /**
+     * @param message Description of the failed operation.
+     * @param cause   The underlying error.
+     */
+    public MCEconomyDatabaseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.mcengine.mceconomy.common.database.sqlite;
+
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import io.github.mcengine.mceconomy.common.database.sqlite.MCEconomySQLiteStatements.Operation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Standalone benchmark of the time a caller holds the SQLite connection lock.
+ * <p>
+ * Two critical sections are compared on the same database and the same account keys:
+ * </p>
+ * <ul>
+ *     <li>{@code legacy}: the section before statement reuse, which prepares the statement,
+ *     binds, executes and closes it while holding the lock.</li>
+ *     <li>{@code reused}: the current section, which takes the open statement from
+ *     {@link MCEconomySQLiteStatements}, binds and executes it.</li>
+ * </ul>
+ * <p>
+ * Reads ({@code GET_COIN}) and writes ({@code ADD_COIN}) are measured separately. Writes run in
+ * transactions of {@value #GROUP} operations committed outside the timed section, like the group
+ * commits of {@link MCEconomySQLiteWriter}. The two variants alternate over several rounds so JIT
+ * warm-up and page cache effects hit both equally; the first round is discarded.
+ * </p>
+ * <p>
+ * Usage: {@code ./gradlew :common:sqliteLockBenchmark [-Pops=<operations per round>]}
+ * </p>
+ */
+public class MCEconomySQLiteLockBenchmark {
+
+    /**
+     * Number of distinct accounts the operations are spread over.
+     */
+    private static final int ACCOUNTS = 10_000;
+
+    /**
+     * Writes per transaction.
+     */
+    private static final int GROUP = 256;
+
+    /**
+     * Measured rounds per variant, after one warm-up round.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * The lock guarding the connection, as in {@link MCEconomySQLite}.
+     */
+    private final Object lock = new Object();
+
+    private final Connection conn;
+    private final MCEconomySQLiteStatements statements;
+    private final String[] uuids = new String[ACCOUNTS];
+
+    private MCEconomySQLiteLockBenchmark(Connection conn) {
+        this.conn = conn;
+        this.statements = new MCEconomySQLiteStatements(conn);
+        for (int i = 0; i < ACCOUNTS; i++) uuids[i] = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Runs the benchmark and prints the mean and percentiles of the lock hold time per operation.
+     *
+     * @param args {@code [operations per round]}, 200000 by default.
+     */
+    public static void main(String[] args) throws Exception {
+        int ops = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Path file = Files.createTempFile("mceconomy-bench", ".db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = FULL");
+                stmt.execute("CREATE TABLE economy_accounts (" +
+                             "account_uuid TEXT NOT NULL, " +
+                             "account_type TEXT NOT NULL, " +
+                             "coin INTEGER NOT NULL DEFAULT 0, " +
+                             "copper INTEGER NOT NULL DEFAULT 0, " +
+                             "silver INTEGER NOT NULL DEFAULT 0, " +
+                             "gold INTEGER NOT NULL DEFAULT 0, " +
+                             "PRIMARY KEY (account_uuid, account_type))");
+            }
+            MCEconomySQLiteLockBenchmark bench = new MCEconomySQLiteLockBenchmark(conn);
+            bench.populate();
+
+            System.out.println("SQLite lock hold time, " + ops + " operations per round, " + ROUNDS + " rounds");
+            long[][] legacyReads = new long[ROUNDS][], reusedReads = new long[ROUNDS][];
+            long[][] legacyWrites = new long[ROUNDS][], reusedWrites = new long[ROUNDS][];
+            for (int round = -1; round < ROUNDS; round++) {
+                long[] lr = bench.reads(ops, false), rr = bench.reads(ops, true);
+                long[] lw = bench.writes(ops, false), rw = bench.writes(ops, true);
+                if (round < 0) continue;
+                legacyReads[round] = lr;
+                reusedReads[round] = rr;
+                legacyWrites[round] = lw;
+                reusedWrites[round] = rw;
+            }
+            report("read  legacy", legacyReads);
+            report("read  reused", reusedReads);
+            report("write legacy", legacyWrites);
+            report("write reused", reusedWrites);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of(file + "-wal"));
+            Files.deleteIfExists(Path.of(file + "-shm"));
+        }
+    }
+
+    private void populate() throws SQLException {
+        conn.setAutoCommit(false);
+        PreparedStatement pstmt = statements.get(Operation.ENSURE_ACCOUNT);
+        for (String uuid : uuids) {
+            pstmt.setString(1, uuid);
+            pstmt.setString(2, "PLAYER");
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    /**
+     * Runs {@code ops} balance reads and returns the lock hold time of each in nanoseconds.
+     */
+    private long[] reads(int ops, boolean reused) throws SQLException {
+        long[] samples = new long[ops];
+        String sql = "SELECT coin FROM economy_accounts WHERE account_uuid = ? AND account_type = ?";
+        long sink = 0;
+        for (int i = 0; i < ops; i++) {
+            String uuid = uuids[i % ACCOUNTS];
+            long started;
+            synchronized (lock) {
+                started = System.nanoTime();
+                if (reused) {
+                    sink += getCoin(statements.get(Operation.GET_COIN, CurrencyType.COIN), uuid);
+                } else {
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        sink += getCoin(pstmt, uuid);
+                    }
+                }
+                samples[i] = System.nanoTime() - started;
+            }
+        }
+        if (sink < 0) System.out.println(sink);
+        return samples;
+    }
+
+    private static int getCoin(PreparedStatement pstmt, String uuid) throws SQLException {
+        pstmt.setString(1, uuid);
+        pstmt.setString(2, "PLAYER");
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Runs {@code ops} deposits in group transactions and returns the lock hold time of each in nanoseconds.
+     */
+    private long[] writes(int ops, boolean reused) throws SQLException {
+        long[] samples = new long[ops];
+        String sql = "INSERT INTO economy_accounts (account_uuid, account_type, coin) VALUES (?, ?, ?) " +
+                     "ON CONFLICT (account_uuid, account_type) DO UPDATE SET coin = coin + excluded.coin";
+        conn.setAutoCommit(false);
+        try {
+            for (int i = 0; i < ops; i++) {
+                String uuid = uuids[i % ACCOUNTS];
+                long started;
+                synchronized (lock) {
+                    started = System.nanoTime();
+                    if (reused) {
+                        addCoin(statements.get(Operation.ADD_COIN, CurrencyType.COIN), uuid);
+                    } else {
+                        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                            addCoin(pstmt, uuid);
+                        }
+                    }
+                    samples[i] = System.nanoTime() - started;
+                }
+                if ((i + 1) % GROUP == 0) conn.commit();
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        return samples;
+    }
+
+    private static void addCoin(PreparedStatement pstmt, String uuid) throws SQLException {
+        pstmt.setString(1, uuid);
+        pstmt.setString(2, "PLAYER");
+        pstmt.setInt(3, 1);
+        pstmt.executeUpdate();
+    }
+
+    private static void report(String label, long[][] rounds) {
+        int perRound = rounds[0].length;
+        long[] all = new long[perRound * rounds.length];
+        for (int r = 0; r < rounds.length; r++) System.arraycopy(rounds[r], 0, all, r * perRound, perRound);
+        Arrays.sort(all);
+        double mean = Arrays.stream(all).average().orElse(0);
+        System.out.printf("%s  mean %8.0f ns  p50 %7d ns  p99 %8d ns  p99.9 %8d ns%n",
+                label, mean, percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
@@ -1,13 +1,26 @@
 package io.github.mcengine.mceconomy.common;
 
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyAsyncDB;
 import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import io.github.mcengine.mceconomy.common.account.MCEconomyKnownAccounts;
 import io.github.mcengine.mceconomy.common.command.MCEconomyCommandManager;
+import io.github.mcengine.mceconomy.common.database.MCEconomyAsyncAdapter;
+import io.github.mcengine.mceconomy.common.database.mysql.MCEconomyMySQLRetries;
 import io.github.mcengine.mceconomy.common.listener.MCEconomyListenerManager;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * High-level provider that acts as a wrapper for the underlying database.
@@ -16,6 +29,15 @@ import java.util.function.Supplier;
  * instead using an injected {@link Executor} to handle asynchronous operations
  * in a way compatible with Spigot, Paper, and Folia.
  * </p>
+ * <p>
+ * Every operation goes through {@link IMCEconomyAsyncDB}. Backends implementing it natively complete
+ * operations on their own threads; other backends run on the injected executor through
+ * {@link MCEconomyAsyncAdapter}.
+ * </p>
+ * <p>
+ * Concurrent identical {@code getCoin} calls share one in-flight query. A mutation of an account
+ * detaches its in-flight reads first, so reads issued after a mutation never observe an older query.
+ * </p>
  */
 public class MCEconomyProvider {
 
@@ -27,12 +49,7 @@ public class MCEconomyProvider {
     /**
      * The underlying database implementation (e.g., MySQL or SQLite).
      */
-    private final IMCEconomyDB db;
-
-    /**
-     * The platform-specific executor used to run database tasks off the main thread.
-     */
-    private final Executor asyncExecutor;
+    private final IMCEconomyAsyncDB db;
 
     /**
      * The manager handling subcommand registration and execution.
@@ -44,6 +61,48 @@ public class MCEconomyProvider {
      */
     private final MCEconomyListenerManager listenerManager;
 
+    /**
+     * Accounts confirmed to exist, used to skip redundant ensureAccountExist round trips.
+     */
+    private final MCEconomyKnownAccounts knownAccounts = new MCEconomyKnownAccounts();
+
+    /**
+     * Key of an in-flight single balance read.
+     */
+    private record ReadKey(String accountUuid, AccountType accountType, CurrencyType coinType) {
+    }
+
+    /**
+     * An in-flight balance read and the number of callers that joined it.
+     */
+    private record Flight(CompletableFuture<Integer> future, AtomicInteger joined) {
+    }
+
+    /**
+     * Balance reads currently running, shared by identical concurrent calls.
+     */
+    private final ConcurrentMap<ReadKey, Flight> inFlightReads = new ConcurrentHashMap<>();
+
+    /**
+     * Number of getCoin calls answered by a query another call had already started.
+     */
+    private final LongAdder coalescedReadHits = new LongAdder();
+
+    /**
+     * Number of getCoin queries shared by at least two calls.
+     */
+    private final LongAdder coalescedQueries = new LongAdder();
+
+    /**
+     * Number of getCoin queries sent to the database.
+     */
+    private final LongAdder readQueries = new LongAdder();
+
+    /**
+     * Deadlock retry counters of the MySQL backend, or null for other backends.
+     */
+    private volatile MCEconomyMySQLRetries retries;
+
     /**
      * The default currency identifier used when no specific coin type is provided.
      */
@@ -51,6 +110,7 @@ public class MCEconomyProvider {
 
     /**
      * Initializes the provider with a database implementation and an async executor.
+     * The executor is only used when the database does not implement {@link IMCEconomyAsyncDB} natively.
      * Sets the static singleton instance upon creation.
      *
      * @param db              The database logic implementation.
@@ -59,8 +119,19 @@ public class MCEconomyProvider {
      * @param listenerManager The listener manager instance.
      */
     public MCEconomyProvider(IMCEconomyDB db, Executor asyncExecutor, MCEconomyCommandManager commandManager, MCEconomyListenerManager listenerManager) {
+        this(MCEconomyAsyncAdapter.of(db, asyncExecutor), commandManager, listenerManager);
+    }
+
+    /**
+     * Initializes the provider with an asynchronous database implementation.
+     * Sets the static singleton instance upon creation.
+     *
+     * @param db              The asynchronous database logic implementation.
+     * @param commandManager  The command manager instance.
+     * @param listenerManager The listener manager instance.
+     */
+    public MCEconomyProvider(IMCEconomyAsyncDB db, MCEconomyCommandManager commandManager, MCEconomyListenerManager listenerManager) {
         this.db = db;
-        this.asyncExecutor = asyncExecutor;
         this.commandManager = commandManager;
         this.listenerManager = listenerManager;
         instance = this; // Set the singleton instance
@@ -76,17 +147,6 @@ public class MCEconomyProvider {
         return instance;
     }
 
-    /**
-     * Internal helper to wrap blocking database calls into a CompletableFuture.
-     *
-     * @param <T>      The return type.
-     * @param supplier The database operation logic.
-     * @return A CompletableFuture tracking the asynchronous task.
-     */
-    private <T> CompletableFuture<T> runAsync(Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier, asyncExecutor);
-    }
-
     /**
      * Gets the command manager for subcommands.
      * @return The MCEconomyCommandManager instance.
@@ -125,7 +185,98 @@ public class MCEconomyProvider {
      * @return A Future that completes with the current balance.
      */
     public CompletableFuture<Integer> getCoin(String accountUuid, String accountType, CurrencyType coinType) {
-        return runAsync(() -> db.getCoin(accountUuid, accountType, coinType));
+        return getCoin(accountUuid, AccountType.of(accountType), coinType);
+    }
+
+    /**
+     * Gets the balance of the default 'coin' type asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account (e.g., {@link AccountType#PLAYER}).
+     * @return A Future that completes with the current balance.
+     */
+    public CompletableFuture<Integer> getCoin(String accountUuid, AccountType accountType) {
+        return getCoin(accountUuid, accountType, DEFAULT_COIN);
+    }
+
+    /**
+     * Gets the balance for a specific coin type asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType    The type of currency.
+     * @return A Future that completes with the current balance.
+     */
+    public CompletableFuture<Integer> getCoin(String accountUuid, AccountType accountType, CurrencyType coinType) {
+        ReadKey key = new ReadKey(accountUuid, accountType, coinType);
+        Flight flight = new Flight(new CompletableFuture<>(), new AtomicInteger());
+        Flight existing = inFlightReads.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedReadHits.increment();
+            if (existing.joined().getAndIncrement() == 0) coalescedQueries.increment();
+            return existing.future().copy();
+        }
+
+        readQueries.increment();
+        CompletableFuture<Integer> read;
+        try {
+            read = db.getCoinAsync(accountUuid, accountType, coinType);
+        } catch (RuntimeException e) {
+            // e.g. a rejected submission; later readers must not join a flight that never lands
+            inFlightReads.remove(key, flight);
+            flight.future().completeExceptionally(e);
+            return flight.future().copy();
+        }
+        read.whenComplete((balance, error) -> {
+            inFlightReads.remove(key, flight);
+            if (error != null) flight.future().completeExceptionally(error);
+            else flight.future().complete(balance);
+        });
+        return flight.future().copy();
+    }
+
+    /**
+     * Gets the balance of every coin type asynchronously using a single database query.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return A Future that completes with the balances of all currency types.
+     */
+    public CompletableFuture<AccountBalance> getAllCoins(String accountUuid, String accountType) {
+        return getAllCoins(accountUuid, AccountType.of(accountType));
+    }
+
+    /**
+     * Gets the balance of every coin type asynchronously using a single database query.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @return A Future that completes with the balances of all currency types.
+     */
+    public CompletableFuture<AccountBalance> getAllCoins(String accountUuid, AccountType accountType) {
+        return db.getAllCoinsAsync(accountUuid, accountType);
+    }
+
+    /**
+     * Gets the default 'coin' balance of many accounts asynchronously.
+     *
+     * @param accounts The accounts to look up.
+     * @return A Future that completes with a map containing every requested account.
+     */
+    public CompletableFuture<Map<AccountKey, Integer>> getCoins(Collection<AccountKey> accounts) {
+        return getCoins(accounts, DEFAULT_COIN);
+    }
+
+    /**
+     * Gets the balance of a specific coin type for many accounts asynchronously.
+     * The lookup runs as a few batched queries on one connection instead of one task per account.
+     *
+     * @param accounts The accounts to look up.
+     * @param coinType The type of currency.
+     * @return A Future that completes with a map containing every requested account; missing accounts map to 0.
+     */
+    public CompletableFuture<Map<AccountKey, Integer>> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return db.getCoinsAsync(accounts, coinType);
     }
 
     // --- SETTERS ---
@@ -152,7 +303,34 @@ public class MCEconomyProvider {
      * @return A Future that completes with true if successful.
      */
     public CompletableFuture<Boolean> setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
-        return runAsync(() -> db.setCoin(accountUuid, accountType, coinType, amount));
+        return setCoin(accountUuid, AccountType.of(accountType), coinType, amount);
+    }
+
+    /**
+     * Sets the balance of the default 'coin' type asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param amount      The new amount to set.
+     * @return A Future that completes with true if successful.
+     */
+    public CompletableFuture<Boolean> setCoin(String accountUuid, AccountType accountType, int amount) {
+        return setCoin(accountUuid, accountType, DEFAULT_COIN, amount);
+    }
+
+    /**
+     * Sets the balance for a specific coin type asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType    The type of currency.
+     * @param amount      The new amount to set.
+     * @return A Future that completes with true if successful.
+     */
+    public CompletableFuture<Boolean> setCoin(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        forgetReads(accountUuid, accountType);
+        return db.setCoinAsync(accountUuid, accountType, coinType, amount)
+                .thenApply(success -> remember(success, accountUuid, accountType));
     }
 
     // --- ADD ---
@@ -179,7 +357,65 @@ public class MCEconomyProvider {
      * @return A Future that completes with true if successful.
      */
     public CompletableFuture<Boolean> addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
-        return runAsync(() -> db.addCoin(accountUuid, accountType, coinType, amount));
+        return addCoin(accountUuid, AccountType.of(accountType), coinType, amount);
+    }
+
+    /**
+     * Adds an amount to the default 'coin' balance asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param amount      Amount to add.
+     * @return A Future that completes with true if successful.
+     */
+    public CompletableFuture<Boolean> addCoin(String accountUuid, AccountType accountType, int amount) {
+        return addCoin(accountUuid, accountType, DEFAULT_COIN, amount);
+    }
+
+    /**
+     * Adds an amount to a specific coin type balance asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType    The type of currency.
+     * @param amount      Amount to add.
+     * @return A Future that completes with true if successful.
+     */
+    public CompletableFuture<Boolean> addCoin(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        forgetReads(accountUuid, accountType);
+        return db.addCoinAsync(accountUuid, accountType, coinType, amount)
+                .thenApply(success -> remember(success, accountUuid, accountType));
+    }
+
+    /**
+     * Adds an amount of a specific coin type to many accounts at once, in a single database transaction
+     * where the backend supports it. Missing accounts are created.
+     *
+     * @param amounts  The amount to add to each account; every amount must be positive.
+     * @param coinType The type of currency.
+     * @return A Future that completes with true if every account was credited.
+     */
+    public CompletableFuture<Boolean> addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        for (AccountKey key : amounts.keySet()) forgetReads(key.getAccountUuid(), key.getType());
+        return db.addCoinBulkAsync(amounts, coinType).thenApply(success -> {
+            if (success) amounts.keySet().forEach(key -> knownAccounts.add(key.getAccountUuid(), key.getType()));
+            return success;
+        });
+    }
+
+    /**
+     * Adds the same amount of a specific coin type to many accounts at once.
+     *
+     * @param accounts The accounts to credit.
+     * @param coinType The type of currency.
+     * @param amount   Amount to add to each account.
+     * @return A Future that completes with true if every account was credited.
+     */
+    public CompletableFuture<Boolean> addCoinBulk(Collection<AccountKey> accounts, CurrencyType coinType, int amount) {
+        if (amount <= 0) return CompletableFuture.completedFuture(false);
+        Map<AccountKey, Integer> amounts = new LinkedHashMap<>(Math.max(16, accounts.size() * 2));
+        for (AccountKey key : accounts) amounts.put(key, amount);
+        return addCoinBulk(amounts, coinType);
     }
 
     // --- MINUS ---
@@ -206,7 +442,34 @@ public class MCEconomyProvider {
      * @return A Future that completes with true if successful, false if insufficient funds.
      */
     public CompletableFuture<Boolean> minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
-        return runAsync(() -> db.minusCoin(accountUuid, accountType, coinType, amount));
+        return minusCoin(accountUuid, AccountType.of(accountType), coinType, amount);
+    }
+
+    /**
+     * Subtracts an amount from the default 'coin' balance asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param amount      Amount to subtract.
+     * @return A Future that completes with true if successful, false if insufficient funds.
+     */
+    public CompletableFuture<Boolean> minusCoin(String accountUuid, AccountType accountType, int amount) {
+        return minusCoin(accountUuid, accountType, DEFAULT_COIN, amount);
+    }
+
+    /**
+     * Subtracts an amount from a specific coin type balance asynchronously.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @param coinType    The type of currency.
+     * @param amount      Amount to subtract.
+     * @return A Future that completes with true if successful, false if insufficient funds.
+     */
+    public CompletableFuture<Boolean> minusCoin(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        forgetReads(accountUuid, accountType);
+        return db.minusCoinAsync(accountUuid, accountType, coinType, amount)
+                .thenApply(success -> remember(success, accountUuid, accountType));
     }
 
     // --- SEND ---
@@ -237,20 +500,139 @@ public class MCEconomyProvider {
      * @return A Future that completes with true if successful, false if sender has insufficient funds.
      */
     public CompletableFuture<Boolean> sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
-        return runAsync(() -> db.sendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount));
+        return sendCoin(senderUuid, AccountType.of(senderType), receiverUuid, AccountType.of(receiverType), coinType, amount);
+    }
+
+    /**
+     * Sends default 'coin' currency from one account to another asynchronously.
+     *
+     * @param senderUuid  Sender account UUID.
+     * @param senderType  Interned sender account type.
+     * @param receiverUuid Receiver account UUID.
+     * @param receiverType Interned receiver account type.
+     * @param amount      Amount to transfer.
+     * @return A Future that completes with true if successful.
+     */
+    public CompletableFuture<Boolean> sendCoin(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType, int amount) {
+        return sendCoin(senderUuid, senderType, receiverUuid, receiverType, DEFAULT_COIN, amount);
+    }
+
+    /**
+     * Sends a specific coin type from one account to another asynchronously.
+     *
+     * @param senderUuid  Sender account UUID.
+     * @param senderType  Interned sender account type.
+     * @param receiverUuid Receiver account UUID.
+     * @param receiverType Interned receiver account type.
+     * @param coinType    The type of currency.
+     * @param amount      Amount to transfer.
+     * @return A Future that completes with true if successful, false if sender has insufficient funds.
+     */
+    public CompletableFuture<Boolean> sendCoin(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType, CurrencyType coinType, int amount) {
+        forgetReads(senderUuid, senderType);
+        forgetReads(receiverUuid, receiverType);
+        return db.sendCoinAsync(senderUuid, senderType, receiverUuid, receiverType, coinType, amount).thenApply(success -> {
+            remember(success, senderUuid, senderType);
+            return remember(success, receiverUuid, receiverType);
+        });
     }
 
     // --- UTILITY ---
 
     /**
      * Ensures the account has an entry in the database asynchronously.
+     * Accounts already confirmed to exist complete immediately without touching the database.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
      * @return A Future that completes with true if the account exists or was successfully created.
      */
     public CompletableFuture<Boolean> ensureAccountExist(String accountUuid, String accountType) {
-        return runAsync(() -> db.ensureAccountExist(accountUuid, accountType));
+        return ensureAccountExist(accountUuid, AccountType.of(accountType));
+    }
+
+    /**
+     * Ensures the account has an entry in the database asynchronously.
+     * Accounts already confirmed to exist complete immediately without touching the database.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The interned type of account.
+     * @return A Future that completes with true if the account exists or was successfully created.
+     */
+    public CompletableFuture<Boolean> ensureAccountExist(String accountUuid, AccountType accountType) {
+        if (knownAccounts.contains(accountUuid, accountType)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return db.ensureAccountExistAsync(accountUuid, accountType)
+                .thenApply(success -> remember(success, accountUuid, accountType));
+    }
+
+    /**
+     * Detaches in-flight balance reads of an account before it is mutated, so later reads query again.
+     */
+    private void forgetReads(String accountUuid, AccountType accountType) {
+        for (CurrencyType type : CurrencyType.values()) {
+            inFlightReads.remove(new ReadKey(accountUuid, accountType, type));
+        }
+    }
+
+    /**
+     * @return The number of getCoin calls answered by a query another call had already started.
+     */
+    public long getCoalescedReadHits() {
+        return coalescedReadHits.sum();
+    }
+
+    /**
+     * @return The number of getCoin queries shared by at least two calls.
+     */
+    public long getCoalescedQueryCount() {
+        return coalescedQueries.sum();
+    }
+
+    /**
+     * @return The number of getCoin queries sent to the database.
+     */
+    public long getReadQueryCount() {
+        return readQueries.sum();
+    }
+
+    /**
+     * Exposes the deadlock retry counters of the MySQL backend behind the caching layers.
+     *
+     * @param retries The backend's counters, or null if the backend does not retry transactions.
+     */
+    public void setRetries(MCEconomyMySQLRetries retries) {
+        this.retries = retries;
+    }
+
+    /**
+     * @return The number of MySQL transfer and bulk write attempts retried after a deadlock or lock wait timeout.
+     */
+    public long getTransferRetryCount() {
+        MCEconomyMySQLRetries counters = retries;
+        return counters == null ? 0L : counters.getTransferRetryCount();
+    }
+
+    /**
+     * @return The number of MySQL transfers and bulk writes that failed because every retry hit a deadlock.
+     */
+    public long getTransferRetriesExhaustedCount() {
+        MCEconomyMySQLRetries counters = retries;
+        return counters == null ? 0L : counters.getTransferRetriesExhaustedCount();
+    }
+
+    /**
+     * Records an account as existing when a database operation on it succeeded.
+     *
+     * @param success     The result of the database operation.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return The unchanged result, for chaining.
+     */
+    private boolean remember(boolean success, String accountUuid, AccountType accountType) {
+        if (success) knownAccounts.add(accountUuid, accountType);
+        return success;
     }
 
     /**
@@ -260,6 +642,7 @@ public class MCEconomyProvider {
         if (db != null) {
             db.close();
         }
+        knownAccounts.clear();
         instance = null; // Clear singleton
     }
 }
@@ -0,0 +1,190 @@
+package io.github.mcengine.mceconomy.common.account;
+
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent set of accounts that are known to exist in the database.
+ * <p>
+ * Canonical UUID keys are stored as two primitive longs in an open-addressing table per
+ * account type (about 21 bytes per account), so hundreds of thousands of accounts stay cheap.
+ * Keys that are not canonical UUID strings fall back to a regular concurrent set.
+ * </p>
+ */
+public class MCEconomyKnownAccounts {
+
+    /**
+     * Compact UUID tables, one per account type.
+     */
+    private final Map<AccountType, UuidSet> uuidSets = new ConcurrentHashMap<>();
+
+    /**
+     * Fallback storage for account identifiers that are not canonical UUIDs.
+     */
+    private final Set<AccountKey> otherKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Checks whether an account was previously confirmed to exist.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return true if the account is known to exist.
+     */
+    public boolean contains(String accountUuid, AccountType accountType) {
+        UUID uuid = parse(accountUuid);
+        if (uuid == null) return otherKeys.contains(AccountKey.of(accountUuid, accountType));
+        UuidSet set = uuidSets.get(accountType);
+        return set != null && set.contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Records that an account exists in the database.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     */
+    public void add(String accountUuid, AccountType accountType) {
+        UUID uuid = parse(accountUuid);
+        if (uuid == null) {
+            otherKeys.add(AccountKey.of(accountUuid, accountType));
+            return;
+        }
+        uuidSets.computeIfAbsent(accountType, type -> new UuidSet())
+                .add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * @return The number of known accounts.
+     */
+    public int size() {
+        int size = otherKeys.size();
+        for (UuidSet set : uuidSets.values()) size += set.size();
+        return size;
+    }
+
+    /**
+     * Forgets every known account.
+     */
+    public void clear() {
+        uuidSets.clear();
+        otherKeys.clear();
+    }
+
+    /**
+     * Parses a canonical lowercase UUID string, or returns null for any other format.
+     */
+    private static UUID parse(String value) {
+        if (value == null || value.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Open-addressing hash set of 128-bit values stored as pairs of longs.
+     * The all-zero value marks an empty slot and is tracked separately.
+     */
+    private static final class UuidSet {
+        private static final float LOAD_FACTOR = 0.75f;
+
+        private final StampedLock lock = new StampedLock();
+        private long[] table = new long[2 * 64];
+        private int size;
+        private boolean containsZero;
+
+        private boolean contains(long msb, long lsb) {
+            long stamp = lock.tryOptimisticRead();
+            boolean found = find(msb, lsb);
+            if (lock.validate(stamp)) return found;
+
+            stamp = lock.readLock();
+            try {
+                return find(msb, lsb);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private boolean find(long msb, long lsb) {
+            if (msb == 0 && lsb == 0) return containsZero;
+            long[] t = table;
+            int mask = (t.length >> 1) - 1;
+            int slot = mix(msb, lsb) & mask;
+            while (true) {
+                long m = t[slot << 1];
+                long l = t[(slot << 1) + 1];
+                if (m == 0 && l == 0) return false;
+                if (m == msb && l == lsb) return true;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void add(long msb, long lsb) {
+            long stamp = lock.writeLock();
+            try {
+                if (msb == 0 && lsb == 0) {
+                    if (!containsZero) {
+                        containsZero = true;
+                        size++;
+                    }
+                    return;
+                }
+                if (insert(table, msb, lsb)) {
+                    size++;
+                    if (size > (table.length >> 1) * LOAD_FACTOR) resize();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static boolean insert(long[] t, long msb, long lsb) {
+            int mask = (t.length >> 1) - 1;
+            int slot = mix(msb, lsb) & mask;
+            while (true) {
+                long m = t[slot << 1];
+                long l = t[(slot << 1) + 1];
+                if (m == 0 && l == 0) {
+                    t[slot << 1] = msb;
+                    t[(slot << 1) + 1] = lsb;
+                    return true;
+                }
+                if (m == msb && l == lsb) return false;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            long[] old = table;
+            long[] grown = new long[old.length << 1];
+            for (int i = 0; i < old.length; i += 2) {
+                if (old[i] != 0 || old[i + 1] != 0) insert(grown, old[i], old[i + 1]);
+            }
+            table = grown;
+        }
+
+        private static int mix(long msb, long lsb) {
+            long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+            h ^= h >>> 32;
+            return (int) (h ^ (h >>> 16));
+        }
+    }
+}
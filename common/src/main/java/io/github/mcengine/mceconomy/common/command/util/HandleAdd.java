@@ -1,5 +1,7 @@
 package io.github.mcengine.mceconomy.common.command.util;
 
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
@@ -9,13 +11,23 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Command handler for adding coins to a player's balance.
+ * The target {@value #ONLINE_TARGET} credits every online player in one bulk database operation.
  */
 public class HandleAdd implements IEconomyCommandHandle {
 
+    /**
+     * Target name selecting every online player.
+     */
+    public static final String ONLINE_TARGET = "@online";
+
     /**
      * The economy provider for data operations.
      */
@@ -62,6 +74,11 @@ public class HandleAdd implements IEconomyCommandHandle {
             return;
         }
 
+        if (ONLINE_TARGET.equalsIgnoreCase(targetName)) {
+            addOnline(sender, coinType, amount);
+            return;
+        }
+
         OfflinePlayer target = Bukkit.getOfflinePlayer(targetName);
         
         // Validation check before attempting DB transaction
@@ -73,7 +90,7 @@ public class HandleAdd implements IEconomyCommandHandle {
         }
 
         // Updated: Added "PLAYER" account type
-        provider.addCoin(target.getUniqueId().toString(), "PLAYER", coinType, amount).thenAccept(success -> {
+        provider.addCoin(target.getUniqueId().toString(), AccountType.PLAYER, coinType, amount).thenAccept(success -> {
             if (success) {
                 MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.success.add")
                     .args(
@@ -88,6 +105,33 @@ public class HandleAdd implements IEconomyCommandHandle {
         });
     }
 
+    /**
+     * Credits every online player with one bulk operation.
+     * @param sender The sender of the command.
+     * @param coinType The currency type.
+     * @param amount The amount to add to each player.
+     */
+    private void addOnline(CommandSender sender, CurrencyType coinType, int amount) {
+        List<AccountKey> accounts = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            accounts.add(AccountKey.of(player.getUniqueId().toString(), AccountType.PLAYER));
+        }
+
+        provider.addCoinBulk(accounts, coinType, amount).thenAccept(success -> {
+            if (success) {
+                MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.success.add.online")
+                    .args(
+                        Component.text(amount),
+                        Component.text(coinType.getName()),
+                        Component.text(accounts.size())
+                    )
+                    .color(NamedTextColor.GREEN));
+            } else {
+                MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.error.generic").color(NamedTextColor.RED));
+            }
+        });
+    }
+
     /**
      * @return The help description for the add command.
      */
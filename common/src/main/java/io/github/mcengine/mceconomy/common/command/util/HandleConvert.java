@@ -2,6 +2,7 @@ package io.github.mcengine.mceconomy.common.command.util;
 
 import com.destroystokyo.paper.profile.PlayerProfile;
 import com.destroystokyo.paper.profile.ProfileProperty;
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
@@ -102,7 +103,7 @@ public class HandleConvert implements IEconomyCommandHandle {
         }
 
         // Deduct coin and give item
-        provider.minusCoin(player.getUniqueId().toString(), "PLAYER", coinType, amount).thenAccept(success -> {
+        provider.minusCoin(player.getUniqueId().toString(), AccountType.PLAYER, coinType, amount).thenAccept(success -> {
             if (success) {
                 // Switch to main thread for inventory operations
                 Bukkit.getScheduler().runTask(plugin, () -> {
@@ -0,0 +1,129 @@
+package io.github.mcengine.mceconomy.common.command.util;
+
+import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.common.command.MCEconomyCommandManager;
+import io.github.mcengine.mceconomy.common.database.dump.MCEconomyDump;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executor;
+
+/**
+ * Command handler for exporting every account to a dump file in the plugin's {@code exports} folder.
+ */
+public class HandleExport implements IEconomyCommandHandle {
+
+    /**
+     * File name pattern of exports without an explicit name.
+     */
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("'economy-'yyyyMMdd-HHmmss'.csv.gz'");
+
+    /**
+     * The plugin instance used for logging and locating the exports folder.
+     */
+    private final Plugin plugin;
+
+    /**
+     * The backend to export, below any caching layer.
+     */
+    private final IMCEconomyDB db;
+
+    /**
+     * Writes cached changes to the database and drops cached balances; runs before the export.
+     */
+    private final Runnable syncCaches;
+
+    /**
+     * The executor the export runs on.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructs a new HandleExport instance.
+     * @param plugin The plugin instance.
+     * @param db The backend to export, below any caching layer.
+     * @param syncCaches Writes cached changes to the database and drops cached balances.
+     * @param executor The executor to run the export on.
+     */
+    public HandleExport(Plugin plugin, IMCEconomyDB db, Runnable syncCaches, Executor executor) {
+        this.plugin = plugin;
+        this.db = db;
+        this.syncCaches = syncCaches;
+        this.executor = executor;
+    }
+
+    /**
+     * Resolves a file name inside the plugin's exports folder.
+     * @param plugin The plugin instance.
+     * @param name The file name given by the sender.
+     * @return The file, or null if the name points outside the exports folder.
+     */
+    static Path exportFile(Plugin plugin, String name) {
+        Path folder = plugin.getDataFolder().toPath().resolve("exports").toAbsolutePath().normalize();
+        Path file = folder.resolve(name).normalize();
+        return file.startsWith(folder) && !file.equals(folder) ? file : null;
+    }
+
+    /**
+     * Executes the export command logic.
+     * @param sender The sender of the command.
+     * @param args The command arguments.
+     */
+    @Override
+    public void invoke(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("mceconomy.export")) {
+            MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.permission.denied").color(NamedTextColor.RED));
+            return;
+        }
+
+        String name = args.length > 0 ? args[0] : LocalDateTime.now().format(FILE_NAME);
+        Path file = exportFile(plugin, name);
+        if (file == null) {
+            MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.invalid.file")
+                .args(Component.text(name))
+                .color(NamedTextColor.RED));
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                syncCaches.run();
+                long count = MCEconomyDump.exportTo(db, file);
+                MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.success.export")
+                    .args(
+                        Component.text(count),
+                        Component.text(file.getFileName().toString())
+                    )
+                    .color(NamedTextColor.GREEN));
+            } catch (IOException e) {
+                plugin.getLogger().warning("[MCEconomy] Export to " + file + " failed: " + e.getMessage());
+                MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.error.generic").color(NamedTextColor.RED));
+            }
+        });
+    }
+
+    /**
+     * @return The help description for the export command.
+     */
+    @Override
+    public Component getHelp() {
+        return Component.translatable("mcengine.mceconomy.msg.help.export");
+    }
+
+    /**
+     * @return The permission node required for this command.
+     */
+    @Override
+    public String getPermission() {
+        return "mceconomy.export";
+    }
+}
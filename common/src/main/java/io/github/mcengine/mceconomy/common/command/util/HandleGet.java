@@ -1,5 +1,6 @@
 package io.github.mcengine.mceconomy.common.command.util;
 
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
@@ -85,7 +86,7 @@ public class HandleGet implements IEconomyCommandHandle {
         String targetName = target.getName() != null ? target.getName() : "Unknown";
 
         // Updated: Added "PLAYER" account type
-        provider.getCoin(target.getUniqueId().toString(), "PLAYER", coinType).thenAccept(balance -> {
+        provider.getCoin(target.getUniqueId().toString(), AccountType.PLAYER, coinType).thenAccept(balance -> {
             // Message variation depending on if checking self or other
             if (sender instanceof Player && ((Player) sender).getUniqueId().equals(target.getUniqueId())) {
                 MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.balance.self")
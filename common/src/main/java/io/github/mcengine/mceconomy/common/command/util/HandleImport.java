@@ -0,0 +1,106 @@
+package io.github.mcengine.mceconomy.common.command.util;
+
+import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.common.command.MCEconomyCommandManager;
+import io.github.mcengine.mceconomy.common.database.dump.MCEconomyDump;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/**
+ * Command handler for restoring balances from a dump file in the plugin's {@code exports} folder.
+ * Imported balances replace the stored ones; accounts missing from the file are kept.
+ */
+public class HandleImport implements IEconomyCommandHandle {
+
+    /**
+     * The plugin instance used for logging, configuration and locating the exports folder.
+     */
+    private final Plugin plugin;
+
+    /**
+     * The database to import into.
+     */
+    private final IMCEconomyDB db;
+
+    /**
+     * The executor the import runs on.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructs a new HandleImport instance.
+     * @param plugin The plugin instance.
+     * @param db The database to import into.
+     * @param executor The executor to run the import on.
+     */
+    public HandleImport(Plugin plugin, IMCEconomyDB db, Executor executor) {
+        this.plugin = plugin;
+        this.db = db;
+        this.executor = executor;
+    }
+
+    /**
+     * Executes the import command logic.
+     * @param sender The sender of the command.
+     * @param args The command arguments.
+     */
+    @Override
+    public void invoke(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("mceconomy.import")) {
+            MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.permission.denied").color(NamedTextColor.RED));
+            return;
+        }
+        if (args.length < 1) {
+            MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.usage.import").color(NamedTextColor.RED));
+            return;
+        }
+
+        Path file = HandleExport.exportFile(plugin, args[0]);
+        if (file == null || !Files.isRegularFile(file)) {
+            MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.invalid.file")
+                .args(Component.text(args[0]))
+                .color(NamedTextColor.RED));
+            return;
+        }
+
+        int batchSize = plugin.getConfig().getInt("db.dump.import-batch-size", MCEconomyDump.DEFAULT_BATCH_SIZE);
+        executor.execute(() -> {
+            try {
+                long count = MCEconomyDump.importFrom(db, file, batchSize);
+                MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.success.import")
+                    .args(
+                        Component.text(count),
+                        Component.text(file.getFileName().toString())
+                    )
+                    .color(NamedTextColor.GREEN));
+            } catch (IOException e) {
+                plugin.getLogger().warning("[MCEconomy] Import from " + file + " failed: " + e.getMessage());
+                MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.error.generic").color(NamedTextColor.RED));
+            }
+        });
+    }
+
+    /**
+     * @return The help description for the import command.
+     */
+    @Override
+    public Component getHelp() {
+        return Component.translatable("mcengine.mceconomy.msg.help.import");
+    }
+
+    /**
+     * @return The permission node required for this command.
+     */
+    @Override
+    public String getPermission() {
+        return "mceconomy.import";
+    }
+}
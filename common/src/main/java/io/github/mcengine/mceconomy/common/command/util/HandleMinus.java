@@ -1,5 +1,6 @@
 package io.github.mcengine.mceconomy.common.command.util;
 
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
@@ -73,7 +74,7 @@ public class HandleMinus implements IEconomyCommandHandle {
         }
 
         // Updated: Added "PLAYER" account type
-        provider.minusCoin(target.getUniqueId().toString(), "PLAYER", coinType, amount).thenAccept(success -> {
+        provider.minusCoin(target.getUniqueId().toString(), AccountType.PLAYER, coinType, amount).thenAccept(success -> {
             if (success) {
                 MCEconomyCommandManager.send(sender, Component.translatable("mcengine.mceconomy.msg.success.remove")
                     .args(
@@ -1,5 +1,6 @@
 package io.github.mcengine.mceconomy.common.command.util;
 
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
@@ -75,7 +76,7 @@ public class HandleSend implements IEconomyCommandHandle {
         }
 
         // Updated: Added "PLAYER" account type for both Sender and Receiver
-        provider.sendCoin(player.getUniqueId().toString(), "PLAYER", target.getUniqueId().toString(), "PLAYER", coinType, amount)
+        provider.sendCoin(player.getUniqueId().toString(), AccountType.PLAYER, target.getUniqueId().toString(), AccountType.PLAYER, coinType, amount)
             .thenAccept(success -> {
                 if (success) {
                     MCEconomyCommandManager.send(player, Component.translatable("mcengine.mceconomy.msg.success.send")
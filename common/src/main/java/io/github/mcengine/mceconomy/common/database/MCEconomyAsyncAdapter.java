@@ -0,0 +1,107 @@
+package io.github.mcengine.mceconomy.common.database;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyAsyncDB;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapts a blocking {@link IMCEconomyDB} to {@link IMCEconomyAsyncDB} by running every call on an executor.
+ */
+public class MCEconomyAsyncAdapter implements IMCEconomyAsyncDB {
+
+    /**
+     * The blocking database.
+     */
+    private final IMCEconomyDB db;
+
+    /**
+     * The executor blocking calls run on.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructs a new adapter.
+     *
+     * @param db       The blocking database.
+     * @param executor The executor to run blocking calls on (e.g., Bukkit scheduler or Folia async scheduler).
+     */
+    public MCEconomyAsyncAdapter(IMCEconomyDB db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the database itself if it implements {@link IMCEconomyAsyncDB} natively, otherwise an adapter.
+     *
+     * @param db       The database.
+     * @param executor The executor to run blocking calls on when the database is not natively asynchronous.
+     * @return An asynchronous view of the database.
+     */
+    public static IMCEconomyAsyncDB of(IMCEconomyDB db, Executor executor) {
+        return db instanceof IMCEconomyAsyncDB async ? async : new MCEconomyAsyncAdapter(db, executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType) {
+        return CompletableFuture.supplyAsync(() -> db.getCoin(accountUuid, accountType, coinType), executor);
+    }
+
+    @Override
+    public CompletableFuture<AccountBalance> getAllCoinsAsync(String accountUuid, AccountType accountType) {
+        return CompletableFuture.supplyAsync(() -> db.getAllCoins(accountUuid, accountType), executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<AccountKey, Integer>> getCoinsAsync(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return CompletableFuture.supplyAsync(() -> db.getCoins(accounts, coinType), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return CompletableFuture.supplyAsync(() -> db.setCoin(accountUuid, accountType, coinType, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return CompletableFuture.supplyAsync(() -> db.addCoin(accountUuid, accountType, coinType, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> minusCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return CompletableFuture.supplyAsync(() -> db.minusCoin(accountUuid, accountType, coinType, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendCoinAsync(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType,
+                                                    CurrencyType coinType, int amount) {
+        return CompletableFuture.supplyAsync(() -> db.sendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> ensureAccountExistAsync(String accountUuid, AccountType accountType) {
+        return CompletableFuture.supplyAsync(() -> db.ensureAccountExist(accountUuid, accountType), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setBalancesAsync(Map<AccountKey, AccountBalance> balances) {
+        return CompletableFuture.supplyAsync(() -> db.setBalances(balances), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addCoinBulkAsync(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        return CompletableFuture.supplyAsync(() -> db.addCoinBulk(amounts, coinType), executor);
+    }
+
+    @Override
+    public void close() {
+        db.close();
+    }
+}
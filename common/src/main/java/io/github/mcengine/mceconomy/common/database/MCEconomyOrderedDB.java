@@ -0,0 +1,217 @@
+package io.github.mcengine.mceconomy.common.database;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyAsyncDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Decorator running operations of the same account one after another, in submission order.
+ * <p>
+ * Every account is hashed to one of a fixed number of lanes. An operation starts only after the previous
+ * operation on its lane has completed (successfully or not), so two rapid mutations of one account never
+ * race on different connections or wait for each other's row lock, while accounts on different lanes run
+ * fully in parallel. Lanes chain futures rather than threads, so waiting operations hold no thread.
+ * </p>
+ * <p>
+ * Transfers and batch writes wait for every lane they touch. Bulk reads via
+ * {@link #getCoinsAsync(Collection, CurrencyType)} are not ordered.
+ * </p>
+ */
+public class MCEconomyOrderedDB implements IMCEconomyAsyncDB {
+
+    /**
+     * The wrapped database.
+     */
+    private final IMCEconomyAsyncDB delegate;
+
+    /**
+     * Guards the tail of each lane.
+     */
+    private final ReentrantLock[] locks;
+
+    /**
+     * The last operation submitted to each lane.
+     */
+    private final CompletableFuture<?>[] tails;
+
+    /**
+     * Constructs a new ordering decorator.
+     *
+     * @param delegate The database to forward every call to.
+     * @param lanes    The number of lanes (at least 1); more lanes mean fewer unrelated accounts sharing one.
+     */
+    public MCEconomyOrderedDB(IMCEconomyAsyncDB delegate, int lanes) {
+        this.delegate = delegate;
+        this.locks = new ReentrantLock[Math.max(1, lanes)];
+        this.tails = new CompletableFuture<?>[locks.length];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+            tails[i] = CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private int lane(String accountUuid, AccountType accountType) {
+        int h = accountUuid.hashCode() * 31 + accountType.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return Math.floorMod(h, locks.length);
+    }
+
+    /**
+     * Queues an operation behind everything already submitted to the given lanes.
+     *
+     * @param lanes     The lanes the operation touches, sorted ascending and without duplicates.
+     * @param operation Starts the operation once its turn has come.
+     */
+    private <T> CompletableFuture<T> enqueue(int[] lanes, Supplier<CompletableFuture<T>> operation) {
+        for (int lane : lanes) locks[lane].lock();
+        try {
+            CompletableFuture<?> previous = lanes.length == 1 ? tails[lanes[0]] : CompletableFuture.allOf(previousTails(lanes));
+            CompletableFuture<T> next = previous.handle((result, error) -> null).thenCompose(ignored -> operation.get());
+            for (int lane : lanes) tails[lane] = next;
+            return next;
+        } finally {
+            for (int i = lanes.length - 1; i >= 0; i--) locks[lanes[i]].unlock();
+        }
+    }
+
+    private CompletableFuture<?>[] previousTails(int[] lanes) {
+        CompletableFuture<?>[] previous = new CompletableFuture<?>[lanes.length];
+        for (int i = 0; i < lanes.length; i++) previous[i] = tails[lanes[i]];
+        return previous;
+    }
+
+    private <T> CompletableFuture<T> enqueue(String accountUuid, AccountType accountType, Supplier<CompletableFuture<T>> operation) {
+        return enqueue(new int[] { lane(accountUuid, accountType) }, operation);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType) {
+        return enqueue(accountUuid, accountType, () -> delegate.getCoinAsync(accountUuid, accountType, coinType));
+    }
+
+    @Override
+    public CompletableFuture<AccountBalance> getAllCoinsAsync(String accountUuid, AccountType accountType) {
+        return enqueue(accountUuid, accountType, () -> delegate.getAllCoinsAsync(accountUuid, accountType));
+    }
+
+    @Override
+    public CompletableFuture<Map<AccountKey, Integer>> getCoinsAsync(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return delegate.getCoinsAsync(accounts, coinType);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return enqueue(accountUuid, accountType, () -> delegate.setCoinAsync(accountUuid, accountType, coinType, amount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return enqueue(accountUuid, accountType, () -> delegate.addCoinAsync(accountUuid, accountType, coinType, amount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> minusCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return enqueue(accountUuid, accountType, () -> delegate.minusCoinAsync(accountUuid, accountType, coinType, amount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendCoinAsync(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType,
+                                                    CurrencyType coinType, int amount) {
+        int[] lanes = Arrays.stream(new int[] { lane(senderUuid, senderType), lane(receiverUuid, receiverType) })
+                .sorted().distinct().toArray();
+        return enqueue(lanes, () -> delegate.sendCoinAsync(senderUuid, senderType, receiverUuid, receiverType, coinType, amount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> ensureAccountExistAsync(String accountUuid, AccountType accountType) {
+        return enqueue(accountUuid, accountType, () -> delegate.ensureAccountExistAsync(accountUuid, accountType));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setBalancesAsync(Map<AccountKey, AccountBalance> balances) {
+        int[] lanes = balances.keySet().stream()
+                .mapToInt(key -> lane(key.getAccountUuid(), key.getType()))
+                .sorted().distinct().toArray();
+        if (lanes.length == 0) return delegate.setBalancesAsync(balances);
+        return enqueue(lanes, () -> delegate.setBalancesAsync(balances));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addCoinBulkAsync(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        int[] lanes = amounts.keySet().stream()
+                .mapToInt(key -> lane(key.getAccountUuid(), key.getType()))
+                .sorted().distinct().toArray();
+        if (lanes.length == 0) return delegate.addCoinBulkAsync(amounts, coinType);
+        return enqueue(lanes, () -> delegate.addCoinBulkAsync(amounts, coinType));
+    }
+
+    /**
+     * Runs an operation on every lane: it starts once all operations queued before it have finished,
+     * and operations queued after it wait until it completes. Bulk reads are not held back.
+     *
+     * @param operation Starts the operation once its turn has come.
+     * @return The operation's future.
+     */
+    public <T> CompletableFuture<T> exclusive(Supplier<CompletableFuture<T>> operation) {
+        int[] lanes = new int[locks.length];
+        for (int i = 0; i < lanes.length; i++) lanes[i] = i;
+        return enqueue(lanes, operation);
+    }
+
+    /**
+     * Waits for every operation queued so far to finish.
+     * <p>
+     * Queued operations only start once their lane reaches them, so the executor the wrapped database runs
+     * on must stay open until this returns; shutting it down earlier would reject operations already accepted.
+     * </p>
+     *
+     * @param timeoutMillis Maximum time to wait in milliseconds.
+     * @return true if every queued operation finished in time.
+     */
+    public boolean drain(long timeoutMillis) {
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[tails.length];
+        for (int i = 0; i < tails.length; i++) {
+            locks[i].lock();
+            try {
+                pending[i] = tails[i];
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        try {
+            CompletableFuture.allOf(pending).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // Failed operations already reported their error; the lanes are still drained.
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits up to ten seconds for queued operations to finish, then closes the wrapped database.
+     */
+    @Override
+    public void close() {
+        drain(10000L);
+        delegate.close();
+    }
+}
@@ -0,0 +1,583 @@
+package io.github.mcengine.mceconomy.common.database.cache;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.logging.Logger;
+
+/**
+ * Decorator merging frequent small deposits into one database update per account and interval.
+ * <p>
+ * {@code addCoin} only adds to a lock-free per-account counter; pending credits are written to the
+ * wrapped database every {@code flush-interval-ms}. Reads return the stored balance plus pending credits.
+ * A withdrawal covered by pending credits is merged as well; any other withdrawal, transfer or absolute
+ * write first flushes the account's pending credit for that currency and then runs against the database,
+ * so insufficient funds are detected against the merged balance exactly as without the accumulator.
+ * </p>
+ * <p>
+ * A flush holds the account's lock from taking the credit until the database write has settled. Withdrawals,
+ * transfers, absolute writes and reads of accounts with pending credit take the same lock, so they never see
+ * a credit that has left the counter but not yet reached the database.
+ * </p>
+ * <p>
+ * Pending credits are lost if the server stops without {@link #close()}.
+ * </p>
+ */
+public class MCEconomyDeltaAccumulator implements IMCEconomyDB {
+
+    /**
+     * Marks a counter whose account is being removed from {@link #pending}.
+     */
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    /**
+     * Number of currency types.
+     */
+    private static final int CURRENCIES = CurrencyType.values().length;
+
+    /**
+     * Number of account lock stripes; must be a power of two.
+     */
+    private static final int STRIPES = 256;
+
+    /**
+     * The wrapped database pending credits are flushed to.
+     */
+    private final IMCEconomyDB delegate;
+
+    /**
+     * Logger used to report flush failures.
+     */
+    private final Logger logger;
+
+    /**
+     * Counters of each account: the pending credit indexed by currency ordinal, followed by the
+     * credit reserved by a flush or transfer still in progress, at {@code CURRENCIES + ordinal}.
+     */
+    private final Map<AccountKey, AtomicLongArray> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Number of calls absorbed into a pending credit instead of reaching the database.
+     */
+    private final LongAdder mergedCount = new LongAdder();
+
+    /**
+     * Number of credit updates sent to the wrapped database.
+     */
+    private final LongAdder flushedCount = new LongAdder();
+
+    /**
+     * Serializes flushes.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Account locks, striped by account key.
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    /**
+     * Background thread running periodic flushes.
+     */
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructs a new delta accumulator around an existing database.
+     * Reads its settings from {@code db.accumulator} in the plugin configuration.
+     *
+     * @param plugin   The Bukkit/Spigot plugin instance.
+     * @param delegate The database to flush pending credits to.
+     */
+    public MCEconomyDeltaAccumulator(Plugin plugin, IMCEconomyDB delegate) {
+        this(delegate, plugin.getLogger(), plugin.getConfig().getLong("db.accumulator.flush-interval-ms", 1000L));
+    }
+
+    /**
+     * Constructs a new delta accumulator with explicit settings.
+     *
+     * @param delegate            The database to flush pending credits to.
+     * @param logger              Logger used to report flush failures.
+     * @param flushIntervalMillis Interval between background flushes in milliseconds.
+     */
+    MCEconomyDeltaAccumulator(IMCEconomyDB delegate, Logger logger, long flushIntervalMillis) {
+        this.delegate = delegate;
+        this.logger = logger;
+        flushIntervalMillis = Math.max(10L, flushIntervalMillis);
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "MCEconomy-DeltaFlush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Resolves the lock stripe of an account.
+     */
+    private static int stripe(AccountKey key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Locks the stripes of the given accounts in ascending order, so multi-account calls cannot deadlock.
+     *
+     * @return The locked stripes, to pass to {@link #unlock(int[])}.
+     */
+    private int[] lock(Collection<AccountKey> keys) {
+        int[] stripes = keys.stream().mapToInt(MCEconomyDeltaAccumulator::stripe).sorted().distinct().toArray();
+        for (int stripe : stripes) locks[stripe].lock();
+        return stripes;
+    }
+
+    private void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) locks[stripes[i]].unlock();
+    }
+
+    /**
+     * Returns the counters of an account, creating them on first use.
+     */
+    private AtomicLongArray counters(AccountKey key) {
+        return pending.computeIfAbsent(key, k -> new AtomicLongArray(2 * CURRENCIES));
+    }
+
+    /**
+     * Adds to an account's pending credit without touching the database.
+     * Reserved credit counts towards the limit, so putting a reservation back can never exceed it.
+     *
+     * @return false if the pending and reserved credit would no longer fit in an int.
+     */
+    private boolean credit(AccountKey key, int index, int amount) {
+        while (true) {
+            AtomicLongArray deltas = counters(key);
+            long current = deltas.get(index);
+            if (current == RETIRED) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (current + deltas.get(CURRENCIES + index) + amount > Integer.MAX_VALUE) return false;
+            if (deltas.compareAndSet(index, current, current + amount)) return true;
+        }
+    }
+
+    /**
+     * Takes a withdrawal out of the pending credit if the credit alone covers it.
+     *
+     * @param reserve Whether to keep the amount reserved until {@link #release} decides whether it is put back.
+     * @return false if the pending credit is smaller than the amount.
+     */
+    private boolean debit(AccountKey key, int index, int amount, boolean reserve) {
+        AtomicLongArray deltas = pending.get(key);
+        if (deltas == null) return false;
+        while (true) {
+            long current = deltas.get(index);
+            if (current == RETIRED || current < amount) return false;
+            if (reserve) deltas.addAndGet(CURRENCIES + index, amount);
+            if (deltas.compareAndSet(index, current, current - amount)) return true;
+            if (reserve) deltas.addAndGet(CURRENCIES + index, -amount);
+        }
+    }
+
+    /**
+     * Removes the pending credit of one currency and keeps it reserved until {@link #release}.
+     *
+     * @return The reserved amount, at most {@link Integer#MAX_VALUE}.
+     */
+    private long reserve(AccountKey key, int index) {
+        while (true) {
+            AtomicLongArray deltas = pending.get(key);
+            if (deltas == null) return 0L;
+            long current = deltas.get(index);
+            if (current == RETIRED) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (current == 0L) return 0L;
+            deltas.addAndGet(CURRENCIES + index, current);
+            if (deltas.compareAndSet(index, current, 0L)) return current;
+            deltas.addAndGet(CURRENCIES + index, -current);
+        }
+    }
+
+    /**
+     * Ends a reservation, optionally putting the amount back into the pending credit.
+     * The restored credit stays within {@link Integer#MAX_VALUE} because {@link #credit} counted the reservation.
+     * An account with a reservation cannot be retired, so its counters are still registered.
+     */
+    private void release(AccountKey key, int index, long amount, boolean restore) {
+        AtomicLongArray deltas = pending.get(key);
+        if (restore) {
+            while (true) {
+                long current = deltas.get(index);
+                if (current == RETIRED) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (deltas.compareAndSet(index, current, current + amount)) break;
+            }
+        }
+        deltas.addAndGet(CURRENCIES + index, -amount);
+    }
+
+    /**
+     * Returns the pending credit of one currency without removing it.
+     */
+    private long peek(AccountKey key, int index) {
+        AtomicLongArray deltas = pending.get(key);
+        if (deltas == null) return 0L;
+        long current = deltas.get(index);
+        return current == RETIRED ? 0L : current;
+    }
+
+    /**
+     * Writes the pending credit of one currency to the wrapped database; the caller holds the account's lock.
+     * A credit that cannot be written is put back and retried on the next flush.
+     *
+     * @return true if nothing was pending or the credit was written.
+     */
+    private boolean flush(AccountKey key, CurrencyType coinType) {
+        int index = coinType.ordinal();
+        long amount = reserve(key, index);
+        if (amount == 0L) return true;
+        boolean success;
+        try {
+            success = delegate.addCoin(key.getAccountUuid(), key.getAccountType(), coinType, (int) amount);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            success = false;
+        }
+        release(key, index, amount, !success);
+        if (success) flushedCount.increment();
+        return success;
+    }
+
+    /**
+     * Marks every counter of an idle account as retired so it can be removed without losing a concurrent credit.
+     * The caller holds the account's lock, so no reservation is in progress.
+     *
+     * @return true if all counters were zero and are now retired.
+     */
+    private static boolean retire(AtomicLongArray deltas) {
+        for (int i = 0; i < CURRENCIES; i++) {
+            if (!deltas.compareAndSet(i, 0L, RETIRED)) {
+                for (int j = 0; j < i; j++) deltas.set(j, 0L);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes every pending credit to the wrapped database and drops accounts that had nothing pending.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            int failed = 0;
+            CurrencyType[] types = CurrencyType.values();
+            for (Map.Entry<AccountKey, AtomicLongArray> entry : pending.entrySet()) {
+                AccountKey key = entry.getKey();
+                AtomicLongArray deltas = entry.getValue();
+                ReentrantLock lock = locks[stripe(key)];
+                lock.lock();
+                try {
+                    boolean idle = true;
+                    for (CurrencyType type : types) {
+                        long current = deltas.get(type.ordinal());
+                        if (current == 0L || current == RETIRED) continue;
+                        idle = false;
+                        if (!flush(key, type)) failed++;
+                    }
+                    if (idle && retire(deltas)) pending.remove(key, deltas);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (failed > 0) {
+                logger.warning("[MCEconomy] Failed to flush " + failed + " accumulated balance changes; retrying on next flush.");
+            }
+        }
+    }
+
+    /**
+     * @return The number of calls absorbed into a pending credit instead of reaching the database.
+     */
+    public long getMergedCount() {
+        return mergedCount.sum();
+    }
+
+    /**
+     * @return The number of credit updates sent to the wrapped database.
+     */
+    public long getFlushedCount() {
+        return flushedCount.sum();
+    }
+
+    /**
+     * Adds the pending credit to the stored balance; accounts with pending credit are read under their lock.
+     */
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        if (!pending.containsKey(key)) return delegate.getCoin(accountUuid, accountType, coinType);
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            long stored = delegate.getCoin(accountUuid, accountType, coinType);
+            return (int) Math.min(Integer.MAX_VALUE, stored + peek(key, coinType.ordinal()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        if (!pending.containsKey(key)) return delegate.getAllCoins(accountUuid, accountType);
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return withPending(key, delegate.getAllCoins(accountUuid, accountType));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        if (!pending.containsKey(key)) return delegate.loadAllCoins(accountUuid, accountType);
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return withPending(key, delegate.loadAllCoins(accountUuid, accountType));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public AccountBalance readAllCoins(String accountUuid, String accountType) {
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        if (!pending.containsKey(key)) return delegate.readAllCoins(accountUuid, accountType);
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return withPending(key, delegate.readAllCoins(accountUuid, accountType));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the account's unflushed deltas to a stored balance.
+     */
+    private AccountBalance withPending(AccountKey key, AccountBalance stored) {
+        AtomicLongArray deltas = pending.get(key);
+        if (deltas == null) return stored;
+
+        int[] values = stored.toArray();
+        for (int i = 0; i < values.length; i++) {
+            long current = deltas.get(i);
+            if (current != RETIRED) values[i] = (int) Math.min(Integer.MAX_VALUE, values[i] + current);
+        }
+        return AccountBalance.of(values);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return coins(accounts, coinType, delegate::getCoins);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return coins(accounts, coinType, delegate::loadCoins);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> readCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return coins(accounts, coinType, delegate::readCoins);
+    }
+
+    /**
+     * Adds pending credits to stored balances; accounts with pending credit are read under their locks.
+     */
+    private Map<AccountKey, Integer> coins(Collection<AccountKey> accounts, CurrencyType coinType,
+                                           BiFunction<Collection<AccountKey>, CurrencyType, Map<AccountKey, Integer>> read) {
+        List<AccountKey> active = accounts.stream().filter(pending::containsKey).toList();
+        int[] stripes = lock(active);
+        try {
+            Map<AccountKey, Integer> result = read.apply(accounts, coinType);
+            int index = coinType.ordinal();
+            for (Map.Entry<AccountKey, Integer> entry : result.entrySet()) {
+                long delta = peek(entry.getKey(), index);
+                if (delta != 0L) entry.setValue((int) Math.min(Integer.MAX_VALUE, entry.getValue() + delta));
+            }
+            return result;
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * Discards the account's pending credit of that currency once the new balance has replaced it;
+     * if the write fails, the credit is put back.
+     */
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        int index = coinType.ordinal();
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            long reserved = reserve(key, index);
+            boolean success = false;
+            try {
+                success = delegate.setCoin(accountUuid, accountType, coinType, amount);
+                return success;
+            } finally {
+                if (reserved != 0L) release(key, index, reserved, !success);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        if (credit(key, coinType.ordinal(), amount)) {
+            mergedCount.increment();
+            return true;
+        }
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return flush(key, coinType) && delegate.addCoin(accountUuid, accountType, coinType, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            if (debit(key, coinType.ordinal(), amount, false)) {
+                mergedCount.increment();
+                return true;
+            }
+            return flush(key, coinType) && delegate.minusCoin(accountUuid, accountType, coinType, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves coins between pending credits when the sender's credit covers the amount,
+     * otherwise flushes both credits and transfers in the wrapped database.
+     */
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        AccountKey senderKey = AccountKey.of(senderUuid, senderType);
+        AccountKey receiverKey = AccountKey.of(receiverUuid, receiverType);
+        int index = coinType.ordinal();
+        int[] stripes = lock(List.of(senderKey, receiverKey));
+        try {
+            if (debit(senderKey, index, amount, true)) {
+                boolean credited = credit(receiverKey, index, amount);
+                release(senderKey, index, amount, !credited);
+                if (credited) {
+                    mergedCount.increment();
+                    return true;
+                }
+            }
+            return flush(senderKey, coinType) && flush(receiverKey, coinType)
+                    && delegate.sendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount);
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        return delegate.ensureAccountExist(accountUuid, accountType);
+    }
+
+    /**
+     * Discards pending credits of the written accounts once the new balances have replaced them;
+     * if the write fails, the credits are put back.
+     */
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        int[] stripes = lock(balances.keySet());
+        try {
+            Map<AccountKey, long[]> reserved = new HashMap<>();
+            for (AccountKey key : balances.keySet()) {
+                long[] amounts = new long[CURRENCIES];
+                for (int i = 0; i < CURRENCIES; i++) amounts[i] = reserve(key, i);
+                reserved.put(key, amounts);
+            }
+            boolean success = false;
+            try {
+                success = delegate.setBalances(balances);
+                return success;
+            } finally {
+                for (Map.Entry<AccountKey, long[]> entry : reserved.entrySet()) {
+                    long[] amounts = entry.getValue();
+                    for (int i = 0; i < CURRENCIES; i++) {
+                        if (amounts[i] != 0L) release(entry.getKey(), i, amounts[i], !success);
+                    }
+                }
+            }
+        } finally {
+            unlock(stripes);
+        }
+    }
+
+    /**
+     * Flushes pending credits first, so the wrapped database streams current balances.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        flush();
+        return delegate.forEachAccount(action);
+    }
+
+    /**
+     * Stops the flush thread, writes every pending credit and closes the wrapped database.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        delegate.close();
+    }
+}
@@ -0,0 +1,401 @@
+package io.github.mcengine.mceconomy.common.database.cache;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.database.MCEconomyDatabaseException;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-through cache decorator for any {@link IMCEconomyDB} backend.
+ * <p>
+ * Balances returned by {@link #getCoin} are cached per (account, currency) for {@code ttl-ms}. Every mutation
+ * passing through this decorator invalidates the affected keys, so callers always read their own writes.
+ * </p>
+ * <p>
+ * Accounts are spread over independent stripes, each with its own lock, least-recently-used order and
+ * share of {@code max-entries}, so concurrent reads of different accounts rarely contend and eviction is
+ * approximately LRU. A load only populates the cache if no write touched the same stripe while it was
+ * running, which prevents a slow read from re-inserting a value that a concurrent write already replaced.
+ * </p>
+ * <p>
+ * Misses are loaded with {@link IMCEconomyDB#readAllCoins} and {@link IMCEconomyDB#readCoins}, which report
+ * failed reads and may be served by a read replica; a failed load is answered with zero balances, like the
+ * backends do, but never cached.
+ * </p>
+ */
+public class MCEconomyReadCache implements IMCEconomyDB {
+
+    /**
+     * Number of cache stripes; must be a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * The wrapped database serving cache misses and all writes.
+     */
+    private final IMCEconomyDB delegate;
+
+    /**
+     * Time-to-live of a cached balance in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * Cache stripes; an account's currencies all live in the same stripe.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Constructs a new read-through cache around an existing database.
+     * Reads its settings from {@code db.cache.read} in the plugin configuration.
+     *
+     * @param plugin   The Bukkit/Spigot plugin instance.
+     * @param delegate The database to read through to.
+     */
+    public MCEconomyReadCache(Plugin plugin, IMCEconomyDB delegate) {
+        this.delegate = delegate;
+        this.ttlNanos = Math.max(1L, plugin.getConfig().getLong("db.cache.read.ttl-ms", 5000L)) * 1_000_000L;
+        int maxEntries = Math.max(16, plugin.getConfig().getInt("db.cache.read.max-entries", 10000));
+        int perStripe = Math.max(CurrencyType.values().length, (maxEntries + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe(perStripe);
+    }
+
+    /**
+     * One lock-protected slice of the cache. All fields are guarded by the stripe's monitor.
+     */
+    private static final class Stripe {
+        /**
+         * Access-ordered map providing LRU eviction within the stripe.
+         */
+        private final LinkedHashMap<Key, Cached> cache;
+
+        /**
+         * Write epoch, bumped around every mutation of an account in the stripe.
+         */
+        private long epoch;
+
+        private Stripe(int maxEntries) {
+            this.cache = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    /**
+     * Cache key combining an account with a currency; the type is interned and compared by identity.
+     */
+    private static final class Key {
+        private final String accountUuid;
+        private final AccountType accountType;
+        private final CurrencyType coinType;
+        private final int hash;
+
+        private Key(String accountUuid, AccountType accountType, CurrencyType coinType) {
+            this.accountUuid = accountUuid;
+            this.accountType = accountType;
+            this.coinType = coinType;
+            this.hash = (31 * accountUuid.hashCode() + accountType.getId()) * 31 + coinType.ordinal();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return hash == other.hash && coinType == other.coinType
+                    && accountType == other.accountType && accountUuid.equals(other.accountUuid);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached balance together with its expiry time.
+     */
+    private record Cached(int amount, long expiresAt) {
+    }
+
+    /**
+     * Resolves the stripe of an account; all currencies of an account share a stripe.
+     */
+    private Stripe stripe(String accountUuid, AccountType accountType) {
+        int h = 31 * accountUuid.hashCode() + accountType.getId();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Drops every cached currency of an account and bumps its stripe's write epoch.
+     */
+    private void invalidate(String accountUuid, String accountType) {
+        AccountType type = AccountType.of(accountType);
+        Stripe stripe = stripe(accountUuid, type);
+        synchronized (stripe) {
+            stripe.epoch++;
+            for (CurrencyType coinType : CurrencyType.values()) {
+                stripe.cache.remove(new Key(accountUuid, type, coinType));
+            }
+        }
+    }
+
+    /**
+     * Drops every cached balance and bumps every write epoch, so reads racing with the call do not cache stale values.
+     * Used after balances were written to the wrapped database directly.
+     */
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.epoch++;
+                stripe.cache.clear();
+            }
+        }
+    }
+
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        AccountType type = AccountType.of(accountType);
+        Key key = new Key(accountUuid, type, coinType);
+        Stripe stripe = stripe(accountUuid, type);
+        long epoch;
+        synchronized (stripe) {
+            Cached cached = stripe.cache.get(key);
+            if (cached != null) {
+                if (System.nanoTime() - cached.expiresAt() < 0) return cached.amount();
+                stripe.cache.remove(key);
+            }
+            epoch = stripe.epoch;
+        }
+        return load(accountUuid, type, stripe, epoch).get(coinType);
+    }
+
+    /**
+     * Serves all currencies from the cache when every one of them is present,
+     * otherwise loads them with one query and caches each currency individually.
+     */
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        AccountType type = AccountType.of(accountType);
+        CurrencyType[] types = CurrencyType.values();
+        int[] values = new int[types.length];
+        Stripe stripe = stripe(accountUuid, type);
+        long epoch;
+        synchronized (stripe) {
+            boolean complete = true;
+            long now = System.nanoTime();
+            for (CurrencyType coinType : types) {
+                Cached cached = stripe.cache.get(new Key(accountUuid, type, coinType));
+                if (cached == null || now - cached.expiresAt() >= 0) {
+                    complete = false;
+                    break;
+                }
+                values[coinType.ordinal()] = cached.amount();
+            }
+            if (complete) return AccountBalance.of(values);
+            epoch = stripe.epoch;
+        }
+        return load(accountUuid, type, stripe, epoch);
+    }
+
+    /**
+     * Loads every currency of an account and caches them unless the stripe was written since {@code epoch}.
+     *
+     * @return The loaded balances, or an empty balance after reporting a failed load.
+     */
+    private AccountBalance load(String accountUuid, AccountType type, Stripe stripe, long epoch) {
+        AccountBalance balance;
+        try {
+            balance = delegate.readAllCoins(accountUuid, type.getName());
+        } catch (MCEconomyDatabaseException e) {
+            e.printStackTrace();
+            return AccountBalance.EMPTY;
+        }
+        synchronized (stripe) {
+            if (stripe.epoch == epoch) {
+                long expiresAt = System.nanoTime() + ttlNanos;
+                for (CurrencyType coinType : CurrencyType.values()) {
+                    stripe.cache.put(new Key(accountUuid, type, coinType), new Cached(balance.get(coinType), expiresAt));
+                }
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * Always reads through; a primary load must never be answered from a possibly stale cache.
+     */
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        return delegate.loadAllCoins(accountUuid, accountType);
+    }
+
+    /**
+     * Always reads through; a primary load must never be answered from a possibly stale cache.
+     */
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return delegate.loadCoins(accounts, coinType);
+    }
+
+    /**
+     * Always reads through, like {@link #loadAllCoins}.
+     */
+    @Override
+    public AccountBalance readAllCoins(String accountUuid, String accountType) {
+        return delegate.readAllCoins(accountUuid, accountType);
+    }
+
+    /**
+     * Always reads through, like {@link #loadCoins}.
+     */
+    @Override
+    public Map<AccountKey, Integer> readCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return delegate.readCoins(accounts, coinType);
+    }
+
+    /**
+     * Serves cached accounts from memory and loads the misses with one batched lookup.
+     */
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        List<AccountKey> missing = new ArrayList<>();
+        List<Long> loadEpochs = new ArrayList<>();
+        long now = System.nanoTime();
+        for (AccountKey key : accounts) {
+            Stripe stripe = stripe(key.getAccountUuid(), key.getType());
+            synchronized (stripe) {
+                Cached cached = stripe.cache.get(new Key(key.getAccountUuid(), key.getType(), coinType));
+                if (cached != null && now - cached.expiresAt() < 0) {
+                    result.put(key, cached.amount());
+                } else {
+                    missing.add(key);
+                    loadEpochs.add(stripe.epoch);
+                }
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<AccountKey, Integer> loaded;
+        try {
+            loaded = delegate.readCoins(missing, coinType);
+        } catch (MCEconomyDatabaseException e) {
+            e.printStackTrace();
+            for (AccountKey key : missing) result.put(key, 0);
+            return result;
+        }
+        long expiresAt = System.nanoTime() + ttlNanos;
+        for (int i = 0; i < missing.size(); i++) {
+            AccountKey key = missing.get(i);
+            Integer amount = loaded.get(key);
+            if (amount == null) continue;
+            Stripe stripe = stripe(key.getAccountUuid(), key.getType());
+            synchronized (stripe) {
+                if (stripe.epoch == loadEpochs.get(i)) {
+                    stripe.cache.put(new Key(key.getAccountUuid(), key.getType(), coinType), new Cached(amount, expiresAt));
+                }
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        invalidate(accountUuid, accountType);
+        try {
+            return delegate.setCoin(accountUuid, accountType, coinType, amount);
+        } finally {
+            invalidate(accountUuid, accountType);
+        }
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        invalidate(accountUuid, accountType);
+        try {
+            return delegate.addCoin(accountUuid, accountType, coinType, amount);
+        } finally {
+            invalidate(accountUuid, accountType);
+        }
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        invalidate(accountUuid, accountType);
+        try {
+            return delegate.minusCoin(accountUuid, accountType, coinType, amount);
+        } finally {
+            invalidate(accountUuid, accountType);
+        }
+    }
+
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        invalidate(senderUuid, senderType);
+        invalidate(receiverUuid, receiverType);
+        try {
+            return delegate.sendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount);
+        } finally {
+            invalidate(senderUuid, senderType);
+            invalidate(receiverUuid, receiverType);
+        }
+    }
+
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        return delegate.ensureAccountExist(accountUuid, accountType);
+    }
+
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        balances.keySet().forEach(key -> invalidate(key.getAccountUuid(), key.getAccountType()));
+        try {
+            return delegate.setBalances(balances);
+        } finally {
+            balances.keySet().forEach(key -> invalidate(key.getAccountUuid(), key.getAccountType()));
+        }
+    }
+
+    @Override
+    public boolean addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        amounts.keySet().forEach(key -> invalidate(key.getAccountUuid(), key.getAccountType()));
+        try {
+            return delegate.addCoinBulk(amounts, coinType);
+        } finally {
+            amounts.keySet().forEach(key -> invalidate(key.getAccountUuid(), key.getAccountType()));
+        }
+    }
+
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        return delegate.forEachAccount(action);
+    }
+
+    /**
+     * Clears the cache and closes the wrapped database.
+     */
+    @Override
+    public void close() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.cache.clear();
+            }
+        }
+        delegate.close();
+    }
+}
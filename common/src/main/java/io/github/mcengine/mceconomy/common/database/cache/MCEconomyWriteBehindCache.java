@@ -0,0 +1,471 @@
+package io.github.mcengine.mceconomy.common.database.cache;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.database.MCEconomyDatabaseException;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind decorator for any {@link IMCEconomyDB} backend.
+ * <p>
+ * Balances of active accounts are held in memory and are authoritative while loaded.
+ * Mutations only touch memory; dirty accounts are written back to the wrapped database
+ * in one batched transaction every {@code flush-interval-ms} or after {@code flush-max-changes}
+ * mutations, whichever comes first. Accounts that stay clean and untouched for
+ * {@code idle-evict-ms} are dropped from memory, and everything is flushed on {@link #close()}.
+ * </p>
+ * <p>
+ * Because memory is authoritative, this mode must only be used when a single server writes
+ * to the economy tables. Accounts are loaded with {@link IMCEconomyDB#loadAllCoins}, i.e. from the
+ * primary; a failed load is never cached, and the mutation that needed it fails instead.
+ * </p>
+ */
+public class MCEconomyWriteBehindCache implements IMCEconomyDB {
+
+    /**
+     * The wrapped database that dirty balances are flushed to.
+     */
+    private final IMCEconomyDB delegate;
+
+    /**
+     * Logger used to report flush failures.
+     */
+    private final Logger logger;
+
+    /**
+     * In-memory balances of loaded accounts.
+     */
+    private final Map<AccountKey, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Mutations applied since the last flush started.
+     */
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+
+    /**
+     * Guards against queueing more than one change-triggered flush at a time.
+     */
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    /**
+     * Serializes flushes so batches are written in order.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Number of mutations that triggers an early flush.
+     */
+    private final int flushMaxChanges;
+
+    /**
+     * Time after which a clean, untouched account is evicted from memory.
+     */
+    private final long idleEvictMillis;
+
+    /**
+     * Background thread running periodic and change-triggered flushes.
+     */
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructs a new write-behind cache around an existing database.
+     * Reads its settings from {@code db.cache.write-behind} in the plugin configuration.
+     *
+     * @param plugin   The Bukkit/Spigot plugin instance.
+     * @param delegate The database to flush dirty balances to.
+     */
+    public MCEconomyWriteBehindCache(Plugin plugin, IMCEconomyDB delegate) {
+        this.delegate = delegate;
+        this.logger = plugin.getLogger();
+        long flushIntervalMillis = Math.max(50L, plugin.getConfig().getLong("db.cache.write-behind.flush-interval-ms", 5000L));
+        this.flushMaxChanges = Math.max(1, plugin.getConfig().getInt("db.cache.write-behind.flush-max-changes", 500));
+        this.idleEvictMillis = Math.max(flushIntervalMillis, plugin.getConfig().getLong("db.cache.write-behind.idle-evict-ms", 600000L));
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "MCEconomy-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mutable in-memory balance of a single account.
+     * All fields are guarded by the entry's monitor.
+     */
+    private static final class Entry {
+        private final int[] balances;
+        private boolean dirty;
+        private boolean evicted;
+        private long lastAccess = System.currentTimeMillis();
+
+        private Entry(int[] balances) {
+            this.balances = balances;
+        }
+    }
+
+    /**
+     * Functional view of a mutation applied under the entry lock.
+     */
+    @FunctionalInterface
+    private interface Mutation {
+        /**
+         * @param balances The account's balances, indexed by currency ordinal.
+         * @return true if the balances were changed.
+         */
+        boolean apply(int[] balances);
+    }
+
+    /**
+     * Returns the loaded entry for an account, loading it from the wrapped database on first access.
+     *
+     * @throws MCEconomyDatabaseException If the account could not be loaded; nothing is cached in that case.
+     */
+    private Entry entry(AccountKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null) return entry;
+
+        Entry loaded = new Entry(delegate.loadAllCoins(key.getAccountUuid(), key.getAccountType()).toArray());
+        Entry existing = entries.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Applies a mutation to an account under its lock, retrying if the entry was evicted concurrently.
+     *
+     * @return false if the mutation was rejected or the account could not be loaded.
+     */
+    private boolean mutate(AccountKey key, Mutation mutation) {
+        while (true) {
+            Entry entry = load(key);
+            if (entry == null) return false;
+            synchronized (entry) {
+                if (entry.evicted) continue;
+                entry.lastAccess = System.currentTimeMillis();
+                if (!mutation.apply(entry.balances)) return false;
+                entry.dirty = true;
+            }
+            onChange();
+            return true;
+        }
+    }
+
+    /**
+     * Returns the loaded entry for an account, or null after reporting a failed load.
+     */
+    private Entry load(AccountKey key) {
+        try {
+            return entry(key);
+        } catch (MCEconomyDatabaseException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Counts a mutation and schedules an early flush once the change threshold is reached.
+     */
+    private void onChange() {
+        if (pendingChanges.incrementAndGet() >= flushMaxChanges && flushQueued.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushQueued.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                // Executor already shut down; close() performs the final flush.
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes every dirty account to the wrapped database in one batch and evicts idle clean accounts.
+     * Accounts whose write fails are marked dirty again and retried on the next flush.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            pendingChanges.set(0);
+            long now = System.currentTimeMillis();
+            Map<AccountKey, AccountBalance> batch = new HashMap<>();
+            Map<AccountKey, Entry> flushed = new HashMap<>();
+
+            Iterator<Map.Entry<AccountKey, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<AccountKey, Entry> mapEntry = it.next();
+                Entry entry = mapEntry.getValue();
+                synchronized (entry) {
+                    if (entry.dirty) {
+                        batch.put(mapEntry.getKey(), AccountBalance.of(entry.balances));
+                        flushed.put(mapEntry.getKey(), entry);
+                        entry.dirty = false;
+                    } else if (now - entry.lastAccess >= idleEvictMillis) {
+                        entry.evicted = true;
+                        it.remove();
+                    }
+                }
+            }
+
+            if (batch.isEmpty()) return;
+
+            boolean success;
+            try {
+                success = delegate.setBalances(batch);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                success = false;
+            }
+
+            if (!success) {
+                logger.warning("[MCEconomy] Failed to flush " + batch.size() + " cached balances; retrying on next flush.");
+                for (Entry entry : flushed.values()) {
+                    synchronized (entry) {
+                        entry.dirty = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every dirty account and evicts all clean accounts, so the next access reloads them.
+     * Used around writes that go to the wrapped database directly.
+     */
+    public void invalidateAll() {
+        synchronized (flushLock) {
+            flush();
+            Iterator<Map.Entry<AccountKey, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next().getValue();
+                synchronized (entry) {
+                    if (entry.dirty) continue;
+                    entry.evicted = true;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        Entry entry = load(AccountKey.of(accountUuid, accountType));
+        if (entry == null) return 0;
+        synchronized (entry) {
+            entry.lastAccess = System.currentTimeMillis();
+            return entry.balances[coinType.ordinal()];
+        }
+    }
+
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        Entry entry = load(AccountKey.of(accountUuid, accountType));
+        if (entry == null) return AccountBalance.EMPTY;
+        synchronized (entry) {
+            entry.lastAccess = System.currentTimeMillis();
+            return AccountBalance.of(entry.balances);
+        }
+    }
+
+    /**
+     * Serves the account from memory, loading it first; a failed load is reported.
+     */
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        Entry entry = entry(AccountKey.of(accountUuid, accountType));
+        synchronized (entry) {
+            entry.lastAccess = System.currentTimeMillis();
+            return AccountBalance.of(entry.balances);
+        }
+    }
+
+    /**
+     * Serves loaded accounts from memory and looks up the remaining ones in one batch,
+     * without loading them into the cache.
+     */
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return coins(accounts, coinType, false);
+    }
+
+    /**
+     * Like {@link #getCoins}, but a failed lookup of the remaining accounts is reported.
+     */
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return coins(accounts, coinType, true);
+    }
+
+    private Map<AccountKey, Integer> coins(Collection<AccountKey> accounts, CurrencyType coinType, boolean load) {
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        List<AccountKey> missing = new ArrayList<>();
+        int index = coinType.ordinal();
+        for (AccountKey key : accounts) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                missing.add(key);
+                continue;
+            }
+            synchronized (entry) {
+                if (entry.evicted) {
+                    missing.add(key);
+                } else {
+                    result.put(key, entry.balances[index]);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(load ? delegate.loadCoins(missing, coinType) : delegate.getCoins(missing, coinType));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount < 0) return false;
+        int index = coinType.ordinal();
+        return mutate(AccountKey.of(accountUuid, accountType), balances -> {
+            balances[index] = amount;
+            return true;
+        });
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        int index = coinType.ordinal();
+        return mutate(AccountKey.of(accountUuid, accountType), balances -> {
+            if (balances[index] > Integer.MAX_VALUE - amount) return false;
+            balances[index] += amount;
+            return true;
+        });
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        int index = coinType.ordinal();
+        return mutate(AccountKey.of(accountUuid, accountType), balances -> {
+            if (balances[index] < amount) return false;
+            balances[index] -= amount;
+            return true;
+        });
+    }
+
+    /**
+     * Transfers coins between two in-memory accounts.
+     * Both entries are locked in a stable order so concurrent opposite transfers cannot deadlock.
+     */
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        AccountKey senderKey = AccountKey.of(senderUuid, senderType);
+        AccountKey receiverKey = AccountKey.of(receiverUuid, receiverType);
+        if (senderKey.equals(receiverKey)) {
+            return mutate(senderKey, balances -> balances[coinType.ordinal()] >= amount);
+        }
+
+        int index = coinType.ordinal();
+        boolean senderFirst = compare(senderKey, receiverKey) < 0;
+        while (true) {
+            Entry sender = load(senderKey);
+            Entry receiver = load(receiverKey);
+            if (sender == null || receiver == null) return false;
+            Entry first = senderFirst ? sender : receiver;
+            Entry second = senderFirst ? receiver : sender;
+            synchronized (first) {
+                synchronized (second) {
+                    if (first.evicted || second.evicted) continue;
+                    long now = System.currentTimeMillis();
+                    sender.lastAccess = now;
+                    receiver.lastAccess = now;
+                    if (sender.balances[index] < amount) return false;
+                    if (receiver.balances[index] > Integer.MAX_VALUE - amount) return false;
+                    sender.balances[index] -= amount;
+                    receiver.balances[index] += amount;
+                    sender.dirty = true;
+                    receiver.dirty = true;
+                }
+            }
+            onChange();
+            return true;
+        }
+    }
+
+    /**
+     * Ensures the account exists in the wrapped database and preloads it into memory.
+     */
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        boolean exists = delegate.ensureAccountExist(accountUuid, accountType);
+        if (exists) load(AccountKey.of(accountUuid, accountType));
+        return exists;
+    }
+
+    /**
+     * Applies a batch of absolute balances to memory; they reach the database on the next flush.
+     *
+     * @return false if an account could not be loaded; the other accounts are still applied.
+     */
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        boolean success = true;
+        for (Map.Entry<AccountKey, AccountBalance> update : balances.entrySet()) {
+            int[] values = update.getValue().toArray();
+            success &= mutate(update.getKey(), current -> {
+                System.arraycopy(values, 0, current, 0, values.length);
+                return true;
+            });
+        }
+        return success;
+    }
+
+    /**
+     * Flushes dirty accounts first, so the wrapped database streams current balances.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        flush();
+        return delegate.forEachAccount(action);
+    }
+
+    /**
+     * Stops the flush thread, writes every dirty account and closes the wrapped database.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        entries.clear();
+        delegate.close();
+    }
+
+    /**
+     * Stable ordering of account keys used for lock acquisition.
+     */
+    private static int compare(AccountKey a, AccountKey b) {
+        int cmp = a.getAccountUuid().compareTo(b.getAccountUuid());
+        return cmp != 0 ? cmp : a.getAccountType().compareTo(b.getAccountType());
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.mcengine.mceconomy.common.database.dump;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * Exports and imports every account of an {@link IMCEconomyDB} through a dump file.
+ * <p>
+ * Exports stream rows from {@link IMCEconomyDB#forEachAccount} straight into the file and imports
+ * write bounded batches through {@link IMCEconomyDB#setBalances}, so neither side holds the table
+ * in memory. Imported balances replace the stored ones; accounts missing from the file are kept.
+ * </p>
+ */
+public class MCEconomyDump {
+
+    /**
+     * Default number of accounts written per import batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Writes every account to a dump file.
+     * The dump is written next to the target and moved into place once complete.
+     *
+     * @param db   The database to export.
+     * @param file The file to create or replace.
+     * @return The number of exported accounts.
+     * @throws IOException If the database cannot enumerate its accounts or the file cannot be written.
+     */
+    public static long exportTo(IMCEconomyDB db, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long count;
+        try (MCEconomyDumpWriter writer = new MCEconomyDumpWriter(temp)) {
+            boolean complete;
+            try {
+                complete = db.forEachAccount((key, balance) -> {
+                    try {
+                        writer.write(key, balance);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!complete) throw new IOException("The database could not list its accounts");
+            count = writer.getCount();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    /**
+     * Writes every account of a dump file to the database in batches.
+     * Each batch is atomic when the backend's {@link IMCEconomyDB#setBalances} is; a failure stops
+     * the import and leaves the batches before it in place.
+     *
+     * @param db        The database to import into.
+     * @param file      The dump file to read.
+     * @param batchSize The number of accounts per batch.
+     * @return The number of imported accounts.
+     * @throws IOException If the file is malformed or a batch cannot be written.
+     */
+    public static long importFrom(IMCEconomyDB db, Path file, int batchSize) throws IOException {
+        int size = Math.max(1, batchSize);
+        long count = 0;
+        try (MCEconomyDumpReader reader = new MCEconomyDumpReader(file)) {
+            Map<AccountKey, AccountBalance> batch;
+            while (!(batch = reader.readBatch(size)).isEmpty()) {
+                if (!db.setBalances(batch)) {
+                    throw new IOException("Failed to write accounts up to dump line " + reader.getLine()
+                            + "; " + count + " accounts were imported before it");
+                }
+                count += batch.size();
+            }
+        }
+        return count;
+    }
+}
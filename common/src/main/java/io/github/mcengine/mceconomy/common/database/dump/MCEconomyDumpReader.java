@@ -0,0 +1,92 @@
+package io.github.mcengine.mceconomy.common.database.dump;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a dump file written by {@link MCEconomyDumpWriter} in batches of bounded size,
+ * so files of any length are imported with constant memory.
+ */
+public class MCEconomyDumpReader implements Closeable {
+
+    /**
+     * Buffered input of the dump file.
+     */
+    private final BufferedReader in;
+
+    /**
+     * Number of the last line read, for error messages.
+     */
+    private long line;
+
+    /**
+     * Opens a dump file and checks its header.
+     *
+     * @param file The file to read.
+     * @throws IOException If the file cannot be opened or is not a dump file.
+     */
+    public MCEconomyDumpReader(Path file) throws IOException {
+        InputStream stream = Files.newInputStream(file);
+        if (MCEconomyDumpWriter.isCompressed(file)) stream = new GZIPInputStream(stream, 1 << 16);
+        this.in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 1 << 16);
+
+        String header = in.readLine();
+        line = 1;
+        if (!MCEconomyDumpWriter.HEADER.equals(header)) {
+            in.close();
+            throw new IOException("Not an MCEconomy dump file: " + file);
+        }
+    }
+
+    /**
+     * Reads the next accounts of the file.
+     *
+     * @param max The maximum number of accounts to return.
+     * @return Up to {@code max} accounts in file order; empty once the end of the file has been reached.
+     * @throws IOException If the file cannot be read or contains a malformed line.
+     */
+    public Map<AccountKey, AccountBalance> readBatch(int max) throws IOException {
+        Map<AccountKey, AccountBalance> batch = new LinkedHashMap<>(Math.max(16, max * 2));
+        String text;
+        while (batch.size() < max && (text = in.readLine()) != null) {
+            line++;
+            if (text.isEmpty()) continue;
+            String[] fields = text.split(",", -1);
+            if (fields.length != 6 || fields[0].isEmpty() || fields[1].isEmpty()) {
+                throw new IOException("Malformed dump line " + line);
+            }
+            try {
+                batch.put(AccountKey.of(fields[0], fields[1]), new AccountBalance(
+                        Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed balance on dump line " + line, e);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * @return The number of the last line read.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
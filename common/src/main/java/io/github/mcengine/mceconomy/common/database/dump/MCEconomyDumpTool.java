@@ -0,0 +1,147 @@
+package io.github.mcengine.mceconomy.common.database.dump;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.common.database.mysql.MCEconomyMySQLSchema;
+import io.github.mcengine.mceconomy.common.database.sqlite.MCEconomySQLiteStatements;
+import io.github.mcengine.mceconomy.common.database.sqlite.MCEconomySQLiteStatements.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Standalone entry point exporting or importing the economy_accounts table without a running server.
+ * <p>
+ * Usage:
+ * {@code java -cp MCEconomy.jar:<jdbc driver jar> io.github.mcengine.mceconomy.common.database.dump.MCEconomyDumpTool
+ * <export|import> <jdbc-url> <file> [user] [password]}
+ * </p>
+ * <p>
+ * MySQL/MariaDB tables are streamed through a server-side cursor in either key layout; SQLite tables are stepped
+ * row by row. Imports write batches of {@link MCEconomyDump#DEFAULT_BATCH_SIZE} rows, one transaction each, into
+ * a table the plugin has already created. For MySQL, add {@code rewriteBatchedStatements=true} to the URL so each
+ * batch is sent as multi-row inserts.
+ * </p>
+ */
+public class MCEconomyDumpTool {
+
+    /**
+     * Runs an export or import.
+     *
+     * @param args {@code <export|import> <jdbc-url> <file> [user] [password]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || !("export".equals(args[0]) || "import".equals(args[0]))) {
+            System.err.println("Usage: MCEconomyDumpTool <export|import> <jdbc-url> <file> [user] [password]");
+            System.exit(2);
+            return;
+        }
+        String url = args[1];
+        Path file = Path.of(args[2]);
+        String user = args.length > 3 ? args[3] : null;
+        String password = args.length > 4 ? args[4] : null;
+
+        long started = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            boolean mysql = url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:");
+            MCEconomyMySQLSchema.ConnectionSource primary = () -> DriverManager.getConnection(url, user, password);
+            long count = "export".equals(args[0]) ? export(conn, mysql, primary, file) : importFrom(conn, mysql, primary, file);
+            long millis = (System.nanoTime() - started) / 1_000_000L;
+            System.out.println(args[0] + "ed " + count + " accounts in " + millis + " ms");
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static long export(Connection conn, boolean mysql, MCEconomyMySQLSchema.ConnectionSource primary, Path file)
+            throws SQLException, IOException {
+        MCEconomyDumpWriter writer = new MCEconomyDumpWriter(file);
+        try (writer) {
+            if (mysql) {
+                schema(conn, primary).stream(conn, (key, balance) -> write(writer, key, balance));
+            } else {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT account_uuid, account_type, coin, copper, silver, gold FROM economy_accounts")) {
+                    while (rs.next()) {
+                        write(writer, AccountKey.of(rs.getString(1), rs.getString(2)),
+                                new AccountBalance(rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6)));
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return writer.getCount();
+    }
+
+    private static void write(MCEconomyDumpWriter writer, AccountKey key, AccountBalance balance) {
+        try {
+            writer.write(key, balance);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long importFrom(Connection conn, boolean mysql, MCEconomyMySQLSchema.ConnectionSource primary, Path file)
+            throws SQLException, IOException {
+        MCEconomyMySQLSchema schema = mysql ? schema(conn, primary) : null;
+        MCEconomySQLiteStatements statements = mysql ? null : new MCEconomySQLiteStatements(conn);
+        long count = 0;
+        conn.setAutoCommit(false);
+        try (MCEconomyDumpReader reader = new MCEconomyDumpReader(file);
+             PreparedStatement mysqlUpsert = mysql ? conn.prepareStatement(mysqlUpsertSql(schema)) : null) {
+            PreparedStatement pstmt = mysql ? mysqlUpsert : statements.get(Operation.SET_BALANCES);
+            Map<AccountKey, AccountBalance> batch;
+            while (!(batch = reader.readBatch(MCEconomyDump.DEFAULT_BATCH_SIZE)).isEmpty()) {
+                if (mysql) schema.resolve(batch.keySet().stream().map(AccountKey::getAccountType).distinct().toList());
+                try {
+                    for (Map.Entry<AccountKey, AccountBalance> entry : batch.entrySet()) {
+                        AccountKey key = entry.getKey();
+                        AccountBalance balance = entry.getValue();
+                        if (mysql) {
+                            schema.bindKey(pstmt, 1, key.getAccountUuid(), key.getAccountType());
+                        } else {
+                            pstmt.setString(1, key.getAccountUuid());
+                            pstmt.setString(2, key.getAccountType());
+                        }
+                        pstmt.setInt(3, balance.getCoin());
+                        pstmt.setInt(4, balance.getCopper());
+                        pstmt.setInt(5, balance.getSilver());
+                        pstmt.setInt(6, balance.getGold());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    pstmt.clearBatch();
+                }
+                count += batch.size();
+            }
+        } finally {
+            if (statements != null) statements.close();
+        }
+        return count;
+    }
+
+    private static MCEconomyMySQLSchema schema(Connection conn, MCEconomyMySQLSchema.ConnectionSource primary) throws SQLException {
+        return new MCEconomyMySQLSchema("binary".equals(MCEconomyMySQLSchema.uuidColumnType(conn)), primary);
+    }
+
+    private static String mysqlUpsertSql(MCEconomyMySQLSchema schema) {
+        return "INSERT INTO " + MCEconomyMySQLSchema.TABLE + " (account_uuid, " + schema.typeColumn() + ", coin, copper, silver, gold) " +
+               "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+               "coin = VALUES(coin), copper = VALUES(copper), silver = VALUES(silver), gold = VALUES(gold)";
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.mcengine.mceconomy.common.database.dump;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes accounts to a dump file, one line at a time.
+ * <p>
+ * The file starts with the {@link #HEADER} line followed by one
+ * {@code account_uuid,account_type,coin,copper,silver,gold} line per account.
+ * Files whose name ends in {@code .gz} are gzip-compressed.
+ * </p>
+ */
+public class MCEconomyDumpWriter implements Closeable {
+
+    /**
+     * First line of every dump file.
+     */
+    public static final String HEADER = "account_uuid,account_type,coin,copper,silver,gold";
+
+    /**
+     * Buffered output of the dump file.
+     */
+    private final BufferedWriter out;
+
+    /**
+     * Number of accounts written so far.
+     */
+    private long count;
+
+    /**
+     * Creates or truncates a dump file and writes its header.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be opened.
+     */
+    public MCEconomyDumpWriter(Path file) throws IOException {
+        OutputStream stream = Files.newOutputStream(file);
+        if (isCompressed(file)) stream = new GZIPOutputStream(stream, 1 << 16);
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+        out.write(HEADER);
+        out.newLine();
+    }
+
+    /**
+     * @param file A dump file.
+     * @return true if the file is gzip-compressed.
+     */
+    static boolean isCompressed(Path file) {
+        return file.getFileName().toString().endsWith(".gz");
+    }
+
+    /**
+     * Appends one account.
+     *
+     * @param key     The account.
+     * @param balance Its balances.
+     * @throws IOException If the account id contains a separator or the file cannot be written.
+     */
+    public void write(AccountKey key, AccountBalance balance) throws IOException {
+        String uuid = key.getAccountUuid();
+        String type = key.getAccountType();
+        if (!writable(uuid) || !writable(type)) {
+            throw new IOException("Account cannot be written to a dump: " + key);
+        }
+        out.write(uuid);
+        out.write(',');
+        out.write(type);
+        out.write(',');
+        out.write(Integer.toString(balance.getCoin()));
+        out.write(',');
+        out.write(Integer.toString(balance.getCopper()));
+        out.write(',');
+        out.write(Integer.toString(balance.getSilver()));
+        out.write(',');
+        out.write(Integer.toString(balance.getGold()));
+        out.newLine();
+        count++;
+    }
+
+    private static boolean writable(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '\n' || c == '\r') return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of accounts written so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flushes and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
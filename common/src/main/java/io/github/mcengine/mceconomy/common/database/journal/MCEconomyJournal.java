@@ -0,0 +1,611 @@
+package io.github.mcengine.mceconomy.common.database.journal;
+
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import io.github.mcengine.mceconomy.common.database.journal.MCEconomyJournalEntry.Operation;
+import io.github.mcengine.mceconomy.common.database.journal.MCEconomyJournalEntry.Status;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of balance mutations stored in memory-mapped segment files.
+ * <p>
+ * Every mutation is written as a fixed {@value #ENTRY_SIZE}-byte entry before it reaches the database
+ * and is marked applied or rejected once the database returns. The journal wraps the storage backend
+ * directly, so applied means committed there and not merely accepted by a cache. Appending only copies a few bytes into
+ * the mapped segment, so the hot path stays in the microsecond range; durability is controlled by
+ * {@code db.journal.fsync} ({@code always}, {@code interval} or {@code never}).
+ * Segments are rotated when full and the oldest ones are deleted beyond {@code db.journal.max-segments}.
+ * </p>
+ * <p>
+ * Entry layout (big-endian): sequence (8), timestamp (8), operation (1), currency (1), status (1),
+ * reserved (1), account type id (2), target type id (2), amount (4), CRC32C (4), account UUID (16),
+ * target UUID (16). The status byte is excluded from the checksum so it can be updated in place.
+ * Account type ids refer to lines of {@code account-types.txt}. Only canonical UUID account
+ * identifiers are journaled; other mutations are counted as skipped.
+ * </p>
+ */
+public class MCEconomyJournal {
+
+    /**
+     * Size of one journal entry in bytes.
+     */
+    public static final int ENTRY_SIZE = 64;
+
+    /**
+     * Handle returned for mutations that were not journaled.
+     */
+    public static final long NO_ENTRY = -1L;
+
+    private static final int OFF_SEQUENCE = 0;
+    private static final int OFF_TIMESTAMP = 8;
+    private static final int OFF_OPERATION = 16;
+    private static final int OFF_CURRENCY = 17;
+    private static final int OFF_STATUS = 18;
+    private static final int OFF_TYPE = 20;
+    private static final int OFF_TARGET_TYPE = 22;
+    private static final int OFF_AMOUNT = 24;
+    private static final int OFF_CRC = 28;
+    private static final int OFF_UUID = 32;
+    private static final int OFF_TARGET_UUID = 48;
+
+    /**
+     * File name suffix of segment files.
+     */
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    /**
+     * When mapped segments are forced to disk.
+     */
+    public enum FsyncPolicy {
+        /** Force every entry and status update before returning. */
+        ALWAYS,
+        /** Force all live segments every {@code fsync-interval-ms}. */
+        INTERVAL,
+        /** Leave write-back to the operating system. */
+        NEVER
+    }
+
+    /**
+     * One memory-mapped segment file.
+     */
+    private static final class Segment {
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int slots;
+        private int used;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean rotated;
+        private final AtomicBoolean retired = new AtomicBoolean();
+
+        private Segment(long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.slots = buffer.capacity() / ENTRY_SIZE;
+        }
+    }
+
+    /**
+     * A pending entry found during startup, kept until {@link #recover} reports it.
+     */
+    private record PendingEntry(MCEconomyJournalEntry entry, Segment segment, int offset) {
+    }
+
+    private final Logger logger;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final FsyncPolicy fsync;
+
+    /**
+     * Segments still receiving entries or status updates, keyed by first sequence.
+     */
+    private final ConcurrentSkipListMap<Long, Segment> live = new ConcurrentSkipListMap<>();
+
+    /**
+     * Persisted account type ids by interned type.
+     */
+    private final Map<AccountType, Short> typeIds = new ConcurrentHashMap<>();
+
+    /**
+     * Persisted account type names by id.
+     */
+    private final List<String> typeNames = new ArrayList<>();
+
+    /**
+     * Entries that were still pending when the previous run stopped.
+     */
+    private final List<PendingEntry> recovered = new ArrayList<>();
+
+    /**
+     * Scratch buffer used to encode one entry; guarded by this journal's monitor.
+     */
+    private final ByteBuffer scratch = ByteBuffer.allocate(ENTRY_SIZE);
+
+    /**
+     * Checksum used for encoding; guarded by this journal's monitor.
+     */
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Mutations that could not be journaled because an identifier is not a canonical UUID.
+     */
+    private final LongAdder skipped = new LongAdder();
+
+    private final ScheduledExecutorService syncer;
+    private Segment current;
+    private long nextSequence = 1;
+    private boolean closed;
+
+    /**
+     * Opens the journal configured under {@code db.journal}, scanning existing segments for the last
+     * sequence number and for mutations that were still in flight when the previous run stopped.
+     *
+     * @param plugin The Bukkit/Spigot plugin instance.
+     * @throws IOException If the journal directory or a segment cannot be opened.
+     */
+    public MCEconomyJournal(Plugin plugin) throws IOException {
+        this.logger = plugin.getLogger();
+        File dir = new File(plugin.getConfig().getString("db.journal.path", "journal"));
+        this.directory = (dir.isAbsolute() ? dir : new File(plugin.getDataFolder(), dir.getPath())).toPath();
+        long configuredSize = plugin.getConfig().getLong("db.journal.segment-size", 64L * 1024 * 1024);
+        this.segmentSize = (int) Math.max(ENTRY_SIZE * 1024L, Math.min(configuredSize, 1L << 30)) / ENTRY_SIZE * ENTRY_SIZE;
+        this.maxSegments = Math.max(2, plugin.getConfig().getInt("db.journal.max-segments", 32));
+
+        FsyncPolicy policy;
+        try {
+            policy = FsyncPolicy.valueOf(plugin.getConfig().getString("db.journal.fsync", "interval").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warning("[MCEconomy] Invalid value for db.journal.fsync, using interval");
+            policy = FsyncPolicy.INTERVAL;
+        }
+        this.fsync = policy;
+
+        Files.createDirectories(directory);
+        loadTypes();
+        scan();
+        this.current = openSegment(nextSequence);
+
+        if (fsync == FsyncPolicy.INTERVAL) {
+            long interval = Math.max(10L, plugin.getConfig().getLong("db.journal.fsync-interval-ms", 1000L));
+            this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "MCEconomy-Journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.syncer.scheduleWithFixedDelay(this::forceAll, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Records a mutation before it is sent to the database.
+     *
+     * @param operation   The mutation.
+     * @param accountUuid The UUID of the account (the sender for transfers).
+     * @param accountType The type of account.
+     * @param targetUuid  The receiver UUID for transfers, otherwise null.
+     * @param targetType  The receiver type for transfers, otherwise null.
+     * @param coinType    The currency type.
+     * @param amount      The amount.
+     * @return A handle for {@link #complete}, or {@link #NO_ENTRY} if the mutation was not journaled.
+     */
+    public long append(Operation operation, String accountUuid, AccountType accountType,
+                       String targetUuid, AccountType targetType, CurrencyType coinType, int amount) {
+        UUID account = parse(accountUuid);
+        UUID target = targetUuid == null ? null : parse(targetUuid);
+        if (account == null || (targetUuid != null && target == null)) {
+            skipped.increment();
+            return NO_ENTRY;
+        }
+        short type = typeId(accountType);
+        short targetTypeId = targetType == null ? -1 : typeId(targetType);
+        if (type < 0 || (targetType != null && targetTypeId < 0)) {
+            skipped.increment();
+            return NO_ENTRY;
+        }
+
+        synchronized (this) {
+            if (closed) return NO_ENTRY;
+            if (current.used == current.slots && !rotate()) return NO_ENTRY;
+
+            long sequence = nextSequence++;
+            ByteBuffer b = scratch.clear();
+            b.putLong(OFF_SEQUENCE, sequence)
+             .putLong(OFF_TIMESTAMP, System.currentTimeMillis())
+             .put(OFF_OPERATION, (byte) operation.ordinal())
+             .put(OFF_CURRENCY, (byte) coinType.ordinal())
+             .put(OFF_STATUS, (byte) Status.PENDING.ordinal())
+             .put(OFF_STATUS + 1, (byte) 0)
+             .putShort(OFF_TYPE, type)
+             .putShort(OFF_TARGET_TYPE, targetTypeId)
+             .putInt(OFF_AMOUNT, amount)
+             .putLong(OFF_UUID, account.getMostSignificantBits())
+             .putLong(OFF_UUID + 8, account.getLeastSignificantBits())
+             .putLong(OFF_TARGET_UUID, target == null ? 0L : target.getMostSignificantBits())
+             .putLong(OFF_TARGET_UUID + 8, target == null ? 0L : target.getLeastSignificantBits());
+            b.putInt(OFF_CRC, checksum(scratch.array()));
+
+            int offset = current.used++ * ENTRY_SIZE;
+            current.buffer.put(offset, scratch.array());
+            current.pending.incrementAndGet();
+            if (fsync == FsyncPolicy.ALWAYS) current.buffer.force(offset, ENTRY_SIZE);
+            return sequence;
+        }
+    }
+
+    /**
+     * Marks a journaled mutation as applied or rejected once the database returned.
+     *
+     * @param handle  The handle returned by {@link #append}.
+     * @param applied Whether the database accepted the mutation.
+     */
+    public void complete(long handle, boolean applied) {
+        if (handle == NO_ENTRY) return;
+        Map.Entry<Long, Segment> found = live.floorEntry(handle);
+        if (found == null) return;
+        Segment segment = found.getValue();
+        int offset = (int) (handle - segment.firstSequence) * ENTRY_SIZE;
+        segment.buffer.put(offset + OFF_STATUS, (byte) (applied ? Status.APPLIED : Status.REJECTED).ordinal());
+        if (fsync == FsyncPolicy.ALWAYS) segment.buffer.force(offset, ENTRY_SIZE);
+        if (segment.pending.decrementAndGet() == 0 && segment.rotated) retire(segment);
+    }
+
+    /**
+     * Reports the mutations that were still pending when the previous run stopped.
+     * They are never re-applied: the database may have committed them right before the crash,
+     * and additions and transfers are not idempotent. An operator has to reconcile them by hand.
+     * Reported entries are marked {@link Status#RECOVERED} so they are only reported once.
+     *
+     * @return The number of pending entries found.
+     */
+    public int recover() {
+        int count = recovered.size();
+        if (count == 0) return 0;
+
+        logger.warning("[MCEconomy] Journal contains " + count + " mutations with unknown outcome from the previous run; " +
+                       "check them against the database:");
+        for (PendingEntry pending : recovered) {
+            logger.warning("[MCEconomy]   " + pending.entry());
+            pending.segment().buffer.put(pending.offset() + OFF_STATUS, (byte) Status.RECOVERED.ordinal());
+        }
+
+        for (PendingEntry pending : recovered) {
+            Segment segment = pending.segment();
+            if (segment.retired.compareAndSet(false, true)) {
+                segment.buffer.force();
+                closeQuietly(segment.channel);
+            }
+        }
+        recovered.clear();
+        return count;
+    }
+
+    /**
+     * Re-applies every applied mutation from a sequence number onwards, e.g. to roll a restored backup forward.
+     * Pending and recovered entries are skipped since their outcome is unknown.
+     *
+     * @param db            The database to apply the mutations to.
+     * @param fromSequence  The first sequence number to replay.
+     * @return The number of replayed entries.
+     * @throws IOException If a segment cannot be read.
+     */
+    public long replay(IMCEconomyDB db, long fromSequence) throws IOException {
+        long count = 0;
+        for (Path path : segmentFiles()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int offset = 0; offset + ENTRY_SIZE <= buffer.capacity(); offset += ENTRY_SIZE) {
+                    MCEconomyJournalEntry entry = decode(buffer, offset);
+                    if (entry == null) break;
+                    if (entry.sequence() < fromSequence || entry.status() != Status.APPLIED) continue;
+                    entry.applyTo(db);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replays from a sequence number unless a replay from that sequence already completed, as recorded in a
+     * marker file in the journal directory, so a {@code db.journal.replay-from} left in the configuration does
+     * not apply the same mutations again on the next start. Only segments still on disk can be replayed.
+     *
+     * @param db           The database to apply the mutations to.
+     * @param fromSequence The first sequence number to replay.
+     * @return The number of replayed entries, or -1 if this replay already ran.
+     * @throws IOException If a segment or the marker file cannot be read or written.
+     */
+    public long replayOnce(IMCEconomyDB db, long fromSequence) throws IOException {
+        Path marker = directory.resolve("replayed");
+        if (Files.exists(marker) && Files.readString(marker, StandardCharsets.UTF_8).trim().equals(Long.toString(fromSequence))) {
+            return -1L;
+        }
+        long count = replay(db, fromSequence);
+        Files.writeString(marker, Long.toString(fromSequence), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        return count;
+    }
+
+    /**
+     * @return The sequence number the next entry will get.
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * @return The number of mutations that were not journaled because an identifier is not a canonical UUID.
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * Forces and closes every segment. Later appends are ignored.
+     */
+    public void close() {
+        if (syncer != null) syncer.shutdownNow();
+        synchronized (this) {
+            closed = true;
+        }
+        for (Segment segment : live.values()) {
+            segment.buffer.force();
+            closeQuietly(segment.channel);
+        }
+        live.clear();
+    }
+
+    /**
+     * Forces every live segment to disk.
+     */
+    private void forceAll() {
+        for (Segment segment : live.values()) {
+            try {
+                segment.buffer.force();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Closes the full segment and opens the next one. Caller holds this journal's monitor.
+     */
+    private boolean rotate() {
+        Segment full = current;
+        try {
+            current = openSegment(nextSequence);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        full.rotated = true;
+        if (full.pending.get() == 0) retire(full);
+        deleteOldSegments();
+        return true;
+    }
+
+    /**
+     * Forces and unregisters a rotated segment once no entry in it is pending any more.
+     */
+    private void retire(Segment segment) {
+        if (!segment.retired.compareAndSet(false, true)) return;
+        segment.buffer.force();
+        live.remove(segment.firstSequence);
+        closeQuietly(segment.channel);
+    }
+
+    /**
+     * Deletes the oldest segment files beyond {@code max-segments}, keeping those still in use.
+     */
+    private void deleteOldSegments() {
+        try {
+            List<Path> files = segmentFiles();
+            for (int i = 0; i < files.size() - maxSegments; i++) {
+                long first = firstSequence(files.get(i));
+                if (live.containsKey(first) || isRecovering(first)) continue;
+                Files.deleteIfExists(files.get(i));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isRecovering(long firstSequence) {
+        for (PendingEntry pending : recovered) {
+            if (pending.segment().firstSequence == firstSequence) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates and maps a new segment file.
+     */
+    private Segment openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        Segment segment = new Segment(firstSequence, channel, buffer);
+        live.put(firstSequence, segment);
+        return segment;
+    }
+
+    /**
+     * Reads every existing segment to find the next sequence number and the entries left pending.
+     * Scanning a segment stops at the first empty or torn entry.
+     */
+    private void scan() throws IOException {
+        for (Path path : segmentFiles()) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            Segment segment = new Segment(firstSequence(path), channel, buffer);
+            boolean hasPending = false;
+            for (int offset = 0; offset + ENTRY_SIZE <= buffer.capacity(); offset += ENTRY_SIZE) {
+                MCEconomyJournalEntry entry = decode(buffer, offset);
+                if (entry == null) break;
+                nextSequence = Math.max(nextSequence, entry.sequence() + 1);
+                if (entry.status() == Status.PENDING) {
+                    recovered.add(new PendingEntry(entry, segment, offset));
+                    hasPending = true;
+                }
+            }
+            if (!hasPending) closeQuietly(channel);
+        }
+    }
+
+    /**
+     * Decodes an entry, returning null for an empty slot or a checksum mismatch.
+     */
+    private MCEconomyJournalEntry decode(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset + OFF_SEQUENCE);
+        if (sequence <= 0) return null;
+        byte[] raw = new byte[ENTRY_SIZE];
+        buffer.get(offset, raw);
+        if (checksum(raw) != buffer.getInt(offset + OFF_CRC)) return null;
+
+        Operation[] operations = Operation.values();
+        Status[] statuses = Status.values();
+        CurrencyType[] currencies = CurrencyType.values();
+        int op = buffer.get(offset + OFF_OPERATION);
+        int status = buffer.get(offset + OFF_STATUS);
+        int currency = buffer.get(offset + OFF_CURRENCY);
+        if (op < 0 || op >= operations.length || status < 0 || status >= statuses.length || currency < 0 || currency >= currencies.length) {
+            return null;
+        }
+
+        boolean transfer = operations[op] == Operation.SEND;
+        UUID account = new UUID(buffer.getLong(offset + OFF_UUID), buffer.getLong(offset + OFF_UUID + 8));
+        UUID target = new UUID(buffer.getLong(offset + OFF_TARGET_UUID), buffer.getLong(offset + OFF_TARGET_UUID + 8));
+        return new MCEconomyJournalEntry(sequence, buffer.getLong(offset + OFF_TIMESTAMP), operations[op], statuses[status],
+                currencies[currency], account.toString(), typeName(buffer.getShort(offset + OFF_TYPE)),
+                transfer ? target.toString() : null, transfer ? typeName(buffer.getShort(offset + OFF_TARGET_TYPE)) : null,
+                buffer.getInt(offset + OFF_AMOUNT));
+    }
+
+    /**
+     * Computes the checksum of an encoded entry, skipping the status byte and the checksum field.
+     */
+    private int checksum(byte[] raw) {
+        CRC32C checksum = Thread.holdsLock(this) ? crc : new CRC32C();
+        checksum.reset();
+        checksum.update(raw, 0, OFF_STATUS);
+        checksum.update(raw, OFF_STATUS + 1, OFF_CRC - OFF_STATUS - 1);
+        checksum.update(raw, OFF_UUID, ENTRY_SIZE - OFF_UUID);
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * Loads the persisted account type dictionary.
+     */
+    private void loadTypes() throws IOException {
+        Path file = directory.resolve("account-types.txt");
+        if (!Files.exists(file)) return;
+        for (String name : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (name.isEmpty()) continue;
+            typeIds.put(AccountType.of(name), (short) typeNames.size());
+            typeNames.add(name);
+        }
+    }
+
+    /**
+     * Resolves the persisted id of an account type, appending new types to the dictionary.
+     *
+     * @return The id, or -1 if the dictionary could not be updated.
+     */
+    private short typeId(AccountType type) {
+        Short id = typeIds.get(type);
+        if (id != null) return id;
+        synchronized (typeNames) {
+            id = typeIds.get(type);
+            if (id != null) return id;
+            if (typeNames.size() >= Short.MAX_VALUE) return -1;
+            try {
+                Files.writeString(directory.resolve("account-types.txt"), type.getName() + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return -1;
+            }
+            short next = (short) typeNames.size();
+            typeNames.add(type.getName());
+            typeIds.put(type, next);
+            return next;
+        }
+    }
+
+    private String typeName(short id) {
+        synchronized (typeNames) {
+            return id >= 0 && id < typeNames.size() ? typeNames.get(id) : "UNKNOWN";
+        }
+    }
+
+    /**
+     * Lists segment files in sequence order.
+     */
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static long firstSequence(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Parses a canonical lowercase UUID string, or returns null for any other format.
+     */
+    private static UUID parse(String value) {
+        if (value == null || value.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
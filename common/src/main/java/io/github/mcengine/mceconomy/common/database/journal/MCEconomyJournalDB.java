@@ -0,0 +1,186 @@
+package io.github.mcengine.mceconomy.common.database.journal;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import io.github.mcengine.mceconomy.common.database.journal.MCEconomyJournalEntry.Operation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decorator recording every balance mutation in a {@link MCEconomyJournal} before it reaches the wrapped database.
+ * Reads and account creation pass straight through.
+ * <p>
+ * It must wrap the storage backend itself, below every caching layer, so an entry is only marked applied
+ * once the backend committed it. With write-behind or the accumulator enabled it therefore records the
+ * writes they flush rather than each individual call.
+ * </p>
+ */
+public class MCEconomyJournalDB implements IMCEconomyDB {
+
+    /**
+     * The wrapped database.
+     */
+    private final IMCEconomyDB delegate;
+
+    /**
+     * The journal mutations are recorded in.
+     */
+    private final MCEconomyJournal journal;
+
+    /**
+     * Constructs a new journaling decorator.
+     *
+     * @param delegate The database to forward every call to.
+     * @param journal  The journal to record mutations in; closed together with this database.
+     */
+    public MCEconomyJournalDB(IMCEconomyDB delegate, MCEconomyJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    /**
+     * @return The journal mutations are recorded in.
+     */
+    public MCEconomyJournal getJournal() {
+        return journal;
+    }
+
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        return delegate.getCoin(accountUuid, accountType, coinType);
+    }
+
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        return delegate.getAllCoins(accountUuid, accountType);
+    }
+
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        return delegate.loadAllCoins(accountUuid, accountType);
+    }
+
+    @Override
+    public AccountBalance readAllCoins(String accountUuid, String accountType) {
+        return delegate.readAllCoins(accountUuid, accountType);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return delegate.getCoins(accounts, coinType);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return delegate.loadCoins(accounts, coinType);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> readCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return delegate.readCoins(accounts, coinType);
+    }
+
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        long handle = journal.append(Operation.SET, accountUuid, AccountType.of(accountType), null, null, coinType, amount);
+        return complete(handle, () -> delegate.setCoin(accountUuid, accountType, coinType, amount));
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        long handle = journal.append(Operation.ADD, accountUuid, AccountType.of(accountType), null, null, coinType, amount);
+        return complete(handle, () -> delegate.addCoin(accountUuid, accountType, coinType, amount));
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        long handle = journal.append(Operation.MINUS, accountUuid, AccountType.of(accountType), null, null, coinType, amount);
+        return complete(handle, () -> delegate.minusCoin(accountUuid, accountType, coinType, amount));
+    }
+
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        long handle = journal.append(Operation.SEND, senderUuid, AccountType.of(senderType),
+                receiverUuid, AccountType.of(receiverType), coinType, amount);
+        return complete(handle, () -> delegate.sendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount));
+    }
+
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        return delegate.ensureAccountExist(accountUuid, accountType);
+    }
+
+    /**
+     * Journals each account's balances as one SET entry per currency, then writes the batch.
+     * The batch is atomic in the database, so every entry gets the batch's outcome.
+     */
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        CurrencyType[] types = CurrencyType.values();
+        long[] handles = new long[balances.size() * types.length];
+        int i = 0;
+        for (Map.Entry<AccountKey, AccountBalance> entry : balances.entrySet()) {
+            AccountKey key = entry.getKey();
+            for (CurrencyType type : types) {
+                handles[i++] = journal.append(Operation.SET, key.getAccountUuid(), key.getType(), null, null, type, entry.getValue().get(type));
+            }
+        }
+        boolean success = false;
+        try {
+            success = delegate.setBalances(balances);
+            return success;
+        } finally {
+            for (long handle : handles) journal.complete(handle, success);
+        }
+    }
+
+    @Override
+    public boolean addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        long[] handles = new long[amounts.size()];
+        int i = 0;
+        for (Map.Entry<AccountKey, Integer> entry : amounts.entrySet()) {
+            AccountKey key = entry.getKey();
+            handles[i++] = journal.append(Operation.ADD, key.getAccountUuid(), key.getType(), null, null, coinType, entry.getValue());
+        }
+        boolean success = false;
+        try {
+            success = delegate.addCoinBulk(amounts, coinType);
+            return success;
+        } finally {
+            for (long handle : handles) journal.complete(handle, success);
+        }
+    }
+
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        return delegate.forEachAccount(action);
+    }
+
+    /**
+     * Closes the wrapped database first so in-flight mutations are resolved, then the journal.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+        journal.close();
+    }
+
+    /**
+     * Runs a database mutation and records its outcome; a thrown exception counts as rejected.
+     */
+    private boolean complete(long handle, BooleanSupplier mutation) {
+        boolean success = false;
+        try {
+            success = mutation.getAsBoolean();
+            return success;
+        } finally {
+            journal.complete(handle, success);
+        }
+    }
+}
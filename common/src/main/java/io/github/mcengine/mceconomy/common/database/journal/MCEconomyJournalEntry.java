@@ -0,0 +1,58 @@
+package io.github.mcengine.mceconomy.common.database.journal;
+
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+
+/**
+ * A decoded journal entry.
+ *
+ * @param sequence    Monotonic sequence number, starting at 1.
+ * @param timestamp   Wall-clock time of the append in milliseconds.
+ * @param operation   The recorded mutation.
+ * @param status      Whether the database accepted the mutation.
+ * @param coinType    The currency type.
+ * @param accountUuid The UUID of the account (the sender for transfers).
+ * @param accountType The type of account (the sender type for transfers).
+ * @param targetUuid  The receiver UUID for transfers, otherwise null.
+ * @param targetType  The receiver type for transfers, otherwise null.
+ * @param amount      The amount of the mutation.
+ */
+public record MCEconomyJournalEntry(long sequence, long timestamp, Operation operation, Status status, CurrencyType coinType,
+                                   String accountUuid, String accountType, String targetUuid, String targetType, int amount) {
+
+    /**
+     * Recorded balance mutations.
+     */
+    public enum Operation {
+        ADD, MINUS, SET, SEND
+    }
+
+    /**
+     * Outcome of a recorded mutation.
+     */
+    public enum Status {
+        /** Appended, but the database call had not returned yet. */
+        PENDING,
+        /** The database accepted the mutation. */
+        APPLIED,
+        /** The database rejected the mutation (e.g. insufficient funds) or failed. */
+        REJECTED,
+        /** Left pending by a crashed run and reported on a later startup; the outcome stays unknown. */
+        RECOVERED
+    }
+
+    /**
+     * Applies this mutation to a database.
+     *
+     * @param db The database to apply the entry to.
+     * @return The result reported by the database.
+     */
+    public boolean applyTo(IMCEconomyDB db) {
+        return switch (operation) {
+            case ADD -> db.addCoin(accountUuid, accountType, coinType, amount);
+            case MINUS -> db.minusCoin(accountUuid, accountType, coinType, amount);
+            case SET -> db.setCoin(accountUuid, accountType, coinType, amount);
+            case SEND -> db.sendCoin(accountUuid, accountType, targetUuid, targetType, coinType, amount);
+        };
+    }
+}
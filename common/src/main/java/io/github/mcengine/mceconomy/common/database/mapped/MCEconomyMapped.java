@@ -0,0 +1,709 @@
+package io.github.mcengine.mceconomy.common.database.mapped;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Off-heap implementation for MCEconomy that keeps every account in a memory-mapped file.
+ * <p>
+ * The file is an open-addressing hash table (linear probing) of fixed-width records, each holding the
+ * account key and one {@code long} slot per {@link CurrencyType}. Lookups and updates read the mapping
+ * directly and do not allocate, so millions of accounts add no GC pressure. Persistence is left to the
+ * OS page cache; the mapping is forced to disk on close. The table doubles once it is three quarters full:
+ * records are copied into a new generation file ({@code <path>.g<n>}) and a small {@code .generation}
+ * file is switched to point at it. A mapped file is never renamed or replaced, which Windows refuses.
+ * If growing fails, it is not retried until restart.
+ * </p>
+ * <p>
+ * Account UUIDs must be ASCII and at most {@value #KEY_BYTES} characters; other keys are rejected.
+ * Account type names are stored once in a {@code .types} file next to the table.
+ * </p>
+ */
+public class MCEconomyMapped implements IMCEconomyDB {
+
+    private static final int MAGIC = 0x4D434542;
+    private static final int VERSION = 1;
+
+    /**
+     * Bytes reserved for the file header: magic, version, capacity and size.
+     */
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_SIZE_FIELD = 12;
+
+    /**
+     * Maximum account UUID length in characters.
+     */
+    private static final int KEY_BYTES = 48;
+
+    private static final int CURRENCIES = CurrencyType.values().length;
+
+    // Record layout: state, hash, type id, key length, key bytes, then the balances.
+    private static final int STATE = 0;
+    private static final int HASH = 4;
+    private static final int TYPE = 8;
+    private static final int LENGTH = 10;
+    private static final int KEY = 12;
+    private static final int BALANCES = 64;
+    private static final int RECORD_SIZE = BALANCES + CURRENCIES * Long.BYTES;
+
+    /**
+     * Records per mapped segment, keeping every mapping well below the 2 GB buffer limit.
+     */
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    /**
+     * Number of lock stripes; must be a power of two.
+     */
+    private static final int STRIPES = 256;
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Logger logger;
+    private final Path path;
+    private final Path typesPath;
+
+    /**
+     * Holds the generation number of the current table file.
+     */
+    private final Path generationPath;
+
+    /**
+     * Generation of the current table file; generation 0 is {@link #path} itself.
+     */
+    private int generation;
+
+    /**
+     * Set once growing the table failed; the table keeps its size until restart.
+     */
+    private volatile boolean growthFailed;
+
+    /**
+     * Held shared by every operation and exclusively while the table grows.
+     */
+    private final StampedLock resizeLock = new StampedLock();
+
+    /**
+     * Serializes record and type insertion.
+     */
+    private final Object insertLock = new Object();
+
+    /**
+     * Striped balance locks, indexed by slot.
+     */
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * Persisted type names; the index is the id stored in records.
+     */
+    private final List<String> typeNames = new ArrayList<>();
+
+    /**
+     * Persisted type id plus one, indexed by {@link AccountType#getId()}; zero means not stored yet.
+     */
+    private volatile int[] typeIds = new int[8];
+
+    /**
+     * An open table file and its mappings.
+     */
+    private record Table(FileChannel channel, MappedByteBuffer header, MappedByteBuffer[] segments, int capacity) {
+    }
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] segments;
+    private int capacity;
+    private int mask;
+    private volatile int size;
+
+    /**
+     * Constructs a new mapped database and opens (or creates) the file at {@code db.mapped.path}.
+     *
+     * @param plugin The Bukkit/Spigot plugin instance.
+     * @throws IllegalStateException If the file cannot be opened or has an unsupported version.
+     */
+    public MCEconomyMapped(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+
+        File file = new File(plugin.getConfig().getString("db.mapped.path", "balances.dat"));
+        this.path = (file.isAbsolute() ? file : new File(plugin.getDataFolder(), file.getPath())).toPath();
+        this.typesPath = path.resolveSibling(path.getFileName() + ".types");
+        this.generationPath = path.resolveSibling(path.getFileName() + ".generation");
+        int requested = Math.max(1024, Math.min(1 << 29, plugin.getConfig().getInt("db.mapped.initial-capacity", 1 << 20)));
+        int initialCapacity = Integer.highestOneBit(requested - 1) << 1;
+
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            if (Files.exists(typesPath)) {
+                for (String name : Files.readAllLines(typesPath, StandardCharsets.UTF_8)) {
+                    if (!name.isEmpty()) rememberType(name, typeNames.size());
+                    typeNames.add(name);
+                }
+            }
+            if (Files.exists(generationPath)) generation = Integer.parseInt(Files.readString(generationPath, StandardCharsets.UTF_8).trim());
+            deleteStaleGenerations();
+            Path table = tablePath(generation);
+            install(open(table, initialCapacity));
+            logger.info("[MCEconomy] Mapped " + size + " accounts from " + table.getFileName() + " (capacity " + capacity + ")");
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Unable to open the mapped economy file " + path, e);
+        }
+    }
+
+    // --- File ---
+
+    /**
+     * Returns the table file of a generation.
+     */
+    private Path tablePath(int gen) {
+        return gen == 0 ? path : path.resolveSibling(path.getFileName() + ".g" + gen);
+    }
+
+    /**
+     * Deletes table files left behind by earlier generations or an interrupted resize.
+     * Runs before anything is mapped, so the files can be deleted on every platform.
+     */
+    private void deleteStaleGenerations() throws IOException {
+        String prefix = path.getFileName() + ".g";
+        try (Stream<Path> files = Files.list(path.toAbsolutePath().getParent())) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith(prefix) || !name.substring(prefix.length()).matches("\\d+")) continue;
+                if (!file.equals(tablePath(generation))) Files.deleteIfExists(file);
+            }
+        }
+        if (generation != 0) Files.deleteIfExists(path);
+        Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".resize"));
+    }
+
+    /**
+     * Opens a table file, initializing the header when it is new. The channel is closed if opening fails.
+     */
+    private static Table open(Path file, int newCapacity) throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mappedHeader = opened.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            mappedHeader.order(ByteOrder.LITTLE_ENDIAN);
+            if (mappedHeader.getInt(0) == MAGIC) {
+                if (mappedHeader.getInt(4) != VERSION) throw new IOException("Unsupported balance file version: " + file);
+                newCapacity = mappedHeader.getInt(HEADER_CAPACITY);
+            } else {
+                mappedHeader.putInt(0, MAGIC);
+                mappedHeader.putInt(4, VERSION);
+                mappedHeader.putInt(HEADER_CAPACITY, newCapacity);
+                mappedHeader.putInt(HEADER_SIZE_FIELD, 0);
+            }
+            return new Table(opened, mappedHeader, map(opened, newCapacity), newCapacity);
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Makes a table the current one. Caller holds the resize lock exclusively, or is the constructor.
+     */
+    private void install(Table table) {
+        channel = table.channel();
+        header = table.header();
+        segments = table.segments();
+        capacity = table.capacity();
+        mask = table.capacity() - 1;
+        size = table.header().getInt(HEADER_SIZE_FIELD);
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, int capacity) throws IOException {
+        int perSegment = Math.min(capacity, 1 << SEGMENT_SHIFT);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[capacity / perSegment];
+        for (int i = 0; i < mapped.length; i++) {
+            long position = HEADER_SIZE + (long) i * perSegment * RECORD_SIZE;
+            mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) perSegment * RECORD_SIZE);
+            mapped[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return mapped;
+    }
+
+    private static ByteBuffer segment(MappedByteBuffer[] segments, int slot) {
+        return segments[slot >>> SEGMENT_SHIFT];
+    }
+
+    private static int base(int slot) {
+        return (slot & SEGMENT_MASK) * RECORD_SIZE;
+    }
+
+    // --- Types ---
+
+    private void rememberType(String name, int persistedId) {
+        int id = AccountType.of(name).getId();
+        int[] ids = typeIds;
+        if (id >= ids.length) ids = Arrays.copyOf(ids, Math.max(id + 1, ids.length * 2));
+        ids[id] = persistedId + 1;
+        typeIds = ids;
+    }
+
+    /**
+     * Returns the persisted id of an account type, or -1 if it is unknown and {@code create} is false.
+     */
+    private int typeId(AccountType type, boolean create) {
+        int[] ids = typeIds;
+        int id = type.getId();
+        if (id < ids.length && ids[id] != 0) return ids[id] - 1;
+        if (!create) return -1;
+        synchronized (insertLock) {
+            ids = typeIds;
+            if (id < ids.length && ids[id] != 0) return ids[id] - 1;
+            int persistedId = typeNames.size();
+            if (persistedId > Short.MAX_VALUE) return -1;
+            try {
+                // Synced before any record can reference the new id, so a crash never leaves a dangling type id
+                Files.writeString(typesPath, type.getName() + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return -1;
+            }
+            typeNames.add(type.getName());
+            rememberType(type.getName(), persistedId);
+            return persistedId;
+        }
+    }
+
+    // --- Index ---
+
+    private static int hash(String uuid, int typeId) {
+        int h = uuid.hashCode() * 31 + typeId;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+
+    private static boolean encodable(String uuid) {
+        if (uuid.length() > KEY_BYTES) return false;
+        for (int i = 0; i < uuid.length(); i++) {
+            if (uuid.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(ByteBuffer segment, int base, String uuid) {
+        int length = segment.get(base + LENGTH);
+        if (length != uuid.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (segment.get(base + KEY + i) != (byte) uuid.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Probes for a key. Returns its slot, or {@code -(insertionSlot + 1)} if it is absent.
+     * Caller holds the resize lock.
+     */
+    private int probe(String uuid, int typeId, int hash) {
+        MappedByteBuffer[] mapped = segments;
+        int slot = hash & mask;
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            ByteBuffer segment = segment(mapped, slot);
+            int base = base(slot);
+            if ((int) INTS.getAcquire(segment, base + STATE) == 0) return -(slot + 1);
+            if (segment.getInt(base + HASH) == hash && segment.getShort(base + TYPE) == typeId && matches(segment, base, uuid)) {
+                return slot;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the slot of an existing account, or -1. Caller holds the resize lock.
+     */
+    private int find(String uuid, AccountType type) {
+        int typeId = typeId(type, false);
+        if (typeId < 0) return -1;
+        int slot = probe(uuid, typeId, hash(uuid, typeId));
+        return slot < 0 ? -1 : slot;
+    }
+
+    /**
+     * Returns the slot of an account, inserting a zero-balance record if needed.
+     * Returns -1 if the key cannot be stored. Caller holds the resize lock.
+     */
+    private int locate(String uuid, AccountType type) {
+        int typeId = typeId(type, true);
+        if (typeId < 0) return -1;
+        int hash = hash(uuid, typeId);
+        int slot = probe(uuid, typeId, hash);
+        if (slot >= 0) return slot;
+        if (!encodable(uuid)) {
+            logger.warning("[MCEconomy] Mapped database cannot store account id: " + uuid);
+            return -1;
+        }
+        synchronized (insertLock) {
+            slot = probe(uuid, typeId, hash);
+            if (slot >= 0) return slot;
+            if (slot == Integer.MIN_VALUE || size >= mask) return -1;
+            slot = -slot - 1;
+
+            ByteBuffer segment = segment(segments, slot);
+            int base = base(slot);
+            segment.putInt(base + HASH, hash);
+            segment.putShort(base + TYPE, (short) typeId);
+            segment.put(base + LENGTH, (byte) uuid.length());
+            for (int i = 0; i < uuid.length(); i++) segment.put(base + KEY + i, (byte) uuid.charAt(i));
+            INTS.setRelease(segment, base + STATE, 1);
+            size++;
+            header.putInt(HEADER_SIZE_FIELD, size);
+            return slot;
+        }
+    }
+
+    /**
+     * Doubles the table once it is three quarters full. Must not be called with the resize lock held.
+     * After a failure the table is not grown again until restart, so mutations do not keep copying it.
+     */
+    private void growIfNeeded() {
+        if (growthFailed || size <= capacity - (capacity >>> 2)) return;
+        long stamp = resizeLock.writeLock();
+        try {
+            if (growthFailed || size <= capacity - (capacity >>> 2) || capacity >= 1 << 30) return;
+            rehash(capacity * 2);
+        } catch (IOException | RuntimeException e) {
+            growthFailed = true;
+            logger.severe("[MCEconomy] Unable to grow the mapped database beyond " + capacity + " slots (" + e +
+                          "); new accounts are refused once it is full. Restart the server to retry.");
+            e.printStackTrace();
+        } finally {
+            resizeLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies every record into the next generation file and points the generation file at it.
+     * The current table stays in use until the switch succeeded. The previous table file is deleted
+     * once it is no longer mapped, at the latest on the next start.
+     */
+    private void rehash(int newCapacity) throws IOException {
+        int nextGeneration = generation + 1;
+        Path next = tablePath(nextGeneration);
+        Files.deleteIfExists(next);
+
+        Table grown = open(next, newCapacity);
+        try {
+            int newMask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                ByteBuffer from = segment(segments, slot);
+                int fromBase = base(slot);
+                if (from.getInt(fromBase + STATE) == 0) continue;
+
+                int target = from.getInt(fromBase + HASH) & newMask;
+                while (segment(grown.segments(), target).getInt(base(target) + STATE) != 0) target = (target + 1) & newMask;
+                ByteBuffer to = segment(grown.segments(), target);
+                int toBase = base(target);
+                for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) to.putLong(toBase + i, from.getLong(fromBase + i));
+            }
+            grown.header().putInt(HEADER_SIZE_FIELD, size);
+            force(grown.header(), grown.segments());
+
+            // The generation file is never mapped, so replacing it works on every platform
+            Path temp = generationPath.resolveSibling(generationPath.getFileName() + ".tmp");
+            Files.writeString(temp, Integer.toString(nextGeneration), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            Files.move(temp, generationPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // The unused file stays mapped until collected; it is deleted on the next start
+            grown.channel().close();
+            throw e;
+        }
+
+        FileChannel oldChannel = channel;
+        Path oldTable = tablePath(generation);
+        install(grown);
+        generation = nextGeneration;
+        oldChannel.close();
+        try {
+            Files.deleteIfExists(oldTable);
+        } catch (IOException e) {
+            // Still mapped on Windows; deleted on the next start
+        }
+        logger.info("[MCEconomy] Grew mapped database to " + newCapacity + " slots");
+    }
+
+    private void force() {
+        force(header, segments);
+    }
+
+    private static void force(MappedByteBuffer header, MappedByteBuffer[] segments) {
+        header.force();
+        for (MappedByteBuffer segment : segments) segment.force();
+    }
+
+    // --- Balances ---
+
+    private long load(int slot, int currency) {
+        return (long) LONGS.getAcquire(segment(segments, slot), base(slot) + BALANCES + currency * Long.BYTES);
+    }
+
+    private void store(int slot, int currency, long value) {
+        LONGS.setRelease(segment(segments, slot), base(slot) + BALANCES + currency * Long.BYTES, value);
+    }
+
+    private Object lock(int slot) {
+        return locks[slot & (STRIPES - 1)];
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    // --- IMCEconomyDB ---
+
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        long stamp = resizeLock.readLock();
+        try {
+            int slot = find(accountUuid, AccountType.of(accountType));
+            return slot < 0 ? 0 : clamp(load(slot, coinType.ordinal()));
+        } finally {
+            resizeLock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        long stamp = resizeLock.readLock();
+        try {
+            int slot = find(accountUuid, AccountType.of(accountType));
+            if (slot < 0) return AccountBalance.EMPTY;
+            int[] values = new int[CURRENCIES];
+            synchronized (lock(slot)) {
+                for (int i = 0; i < CURRENCIES; i++) values[i] = clamp(load(slot, i));
+            }
+            return AccountBalance.of(values);
+        } finally {
+            resizeLock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        long stamp = resizeLock.readLock();
+        try {
+            for (AccountKey key : accounts) {
+                int slot = find(key.getAccountUuid(), key.getType());
+                result.put(key, slot < 0 ? 0 : clamp(load(slot, coinType.ordinal())));
+            }
+        } finally {
+            resizeLock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount < 0) return false;
+        long stamp = resizeLock.readLock();
+        try {
+            int slot = locate(accountUuid, AccountType.of(accountType));
+            if (slot < 0) return false;
+            synchronized (lock(slot)) {
+                store(slot, coinType.ordinal(), amount);
+            }
+            return true;
+        } finally {
+            resizeLock.unlockRead(stamp);
+            growIfNeeded();
+        }
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        long stamp = resizeLock.readLock();
+        try {
+            int slot = locate(accountUuid, AccountType.of(accountType));
+            if (slot < 0) return false;
+            synchronized (lock(slot)) {
+                store(slot, coinType.ordinal(), load(slot, coinType.ordinal()) + amount);
+            }
+            return true;
+        } finally {
+            resizeLock.unlockRead(stamp);
+            growIfNeeded();
+        }
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        long stamp = resizeLock.readLock();
+        try {
+            int slot = find(accountUuid, AccountType.of(accountType));
+            if (slot < 0) return false;
+            synchronized (lock(slot)) {
+                long balance = load(slot, coinType.ordinal());
+                if (balance < amount) return false;
+                store(slot, coinType.ordinal(), balance - amount);
+            }
+            return true;
+        } finally {
+            resizeLock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        long stamp = resizeLock.readLock();
+        try {
+            int from = find(senderUuid, AccountType.of(senderType));
+            if (from < 0) return false;
+            int to = locate(receiverUuid, AccountType.of(receiverType));
+            if (to < 0) return false;
+            int currency = coinType.ordinal();
+
+            Object first = lock(Math.min(from & (STRIPES - 1), to & (STRIPES - 1)));
+            Object second = lock(Math.max(from & (STRIPES - 1), to & (STRIPES - 1)));
+            synchronized (first) {
+                synchronized (second) {
+                    long balance = load(from, currency);
+                    if (balance < amount) return false;
+                    if (from == to) return true;
+                    store(from, currency, balance - amount);
+                    store(to, currency, load(to, currency) + amount);
+                }
+            }
+            return true;
+        } finally {
+            resizeLock.unlockRead(stamp);
+            growIfNeeded();
+        }
+    }
+
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        long stamp = resizeLock.readLock();
+        try {
+            return locate(accountUuid, AccountType.of(accountType)) >= 0;
+        } finally {
+            resizeLock.unlockRead(stamp);
+            growIfNeeded();
+        }
+    }
+
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        boolean success = true;
+        for (Map.Entry<AccountKey, AccountBalance> entry : balances.entrySet()) {
+            long stamp = resizeLock.readLock();
+            try {
+                int slot = locate(entry.getKey().getAccountUuid(), entry.getKey().getType());
+                if (slot < 0) {
+                    success = false;
+                    continue;
+                }
+                synchronized (lock(slot)) {
+                    for (CurrencyType type : CurrencyType.values()) store(slot, type.ordinal(), entry.getValue().get(type));
+                }
+            } finally {
+                resizeLock.unlockRead(stamp);
+                growIfNeeded();
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Visits occupied records in table order under the resize read lock,
+     * so the table cannot grow (and inserts that need growth wait) until the scan ends.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        long stamp = resizeLock.readLock();
+        try {
+            String[] names;
+            synchronized (insertLock) {
+                names = typeNames.toArray(new String[0]);
+            }
+            byte[] key = new byte[KEY_BYTES];
+            int unknownTypes = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                ByteBuffer segment = segment(segments, slot);
+                int base = base(slot);
+                if ((int) INTS.getAcquire(segment, base + STATE) == 0) continue;
+
+                int typeId = segment.getShort(base + TYPE);
+                if (typeId >= names.length) {
+                    synchronized (insertLock) {
+                        names = typeNames.toArray(new String[0]);
+                    }
+                }
+                if (typeId < 0 || typeId >= names.length || names[typeId].isEmpty()) {
+                    unknownTypes++;
+                    continue;
+                }
+                int length = segment.get(base + LENGTH);
+                segment.get(base + KEY, key, 0, length);
+                int[] values = new int[CURRENCIES];
+                synchronized (lock(slot)) {
+                    for (int i = 0; i < CURRENCIES; i++) values[i] = clamp(load(slot, i));
+                }
+                action.accept(AccountKey.of(new String(key, 0, length, StandardCharsets.US_ASCII), names[typeId]), AccountBalance.of(values));
+            }
+            if (unknownTypes > 0) {
+                logger.warning("[MCEconomy] Skipped " + unknownTypes + " mapped records with an account type missing from " +
+                               typesPath.getFileName());
+            }
+            return true;
+        } finally {
+            resizeLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Forces the mapping to disk and closes the file.
+     */
+    @Override
+    public void close() {
+        long stamp = resizeLock.writeLock();
+        try {
+            if (channel == null) return;
+            force();
+            channel.close();
+            channel = null;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            resizeLock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package io.github.mcengine.mceconomy.common.database.memory;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.plugin.Plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Pure in-memory implementation for MCEconomy, for servers where JDBC latency dominates.
+ * <p>
+ * Accounts are assigned a slot from a concurrent key index; balances live in pages of primitive
+ * {@code long} arrays with one contiguous run per {@link CurrencyType}. Reads are lock-free, writes take
+ * one of {@value #STRIPES} striped locks and transfers lock both stripes in a fixed order.
+ * </p>
+ * <p>
+ * Every mutation queues the resulting absolute balance for a background thread, which appends it to
+ * the current changelog every {@code db.memory.flush-interval-ms}. Every {@code snapshot-interval-ms}
+ * the thread starts a new changelog generation and writes a binary snapshot of all accounts. On startup
+ * the snapshot is loaded with one sequential read and newer changelogs are replayed; since changelog
+ * records hold absolute values, replaying is idempotent. Up to one flush interval of changes can be
+ * lost on a crash. A snapshot is forced to disk before it replaces the previous one and before the
+ * changelogs it covers are deleted; if the stored state cannot be read, startup fails instead of
+ * overwriting it.
+ * </p>
+ */
+public class MCEconomyMemory implements IMCEconomyDB {
+
+    /**
+     * Number of lock stripes; must be a power of two.
+     */
+    private static final int STRIPES = 256;
+
+    /**
+     * Accounts per page; must be a power of two.
+     */
+    private static final int PAGE_SIZE = 4096;
+
+    /**
+     * Number of currency types.
+     */
+    private static final int CURRENCIES = CurrencyType.values().length;
+
+    /**
+     * Magic number at the start of a snapshot file.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x4D434543;
+
+    /**
+     * Snapshot format version.
+     */
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * Currency byte of a changelog record that only creates an account.
+     */
+    private static final byte CREATE_RECORD = -1;
+
+    /**
+     * Atomic access to balance array elements.
+     */
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * A balance change waiting to be appended to the changelog.
+     */
+    private record Change(AccountKey key, byte currency, long value) {
+    }
+
+    private final Logger logger;
+    private final Path directory;
+
+    /**
+     * Slot of every known account.
+     */
+    private final Map<AccountKey, Integer> index = new ConcurrentHashMap<>();
+
+    /**
+     * Account key of every slot, used when writing snapshots.
+     */
+    private volatile AccountKey[] keys = new AccountKey[PAGE_SIZE];
+
+    /**
+     * Balance pages; page {@code p} holds slots {@code p * PAGE_SIZE ..}, laid out currency by currency.
+     */
+    private volatile long[][] pages = new long[][] { new long[PAGE_SIZE * CURRENCIES] };
+
+    /**
+     * Next free slot.
+     */
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    /**
+     * Striped write locks.
+     */
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * Changes not yet written to the changelog.
+     */
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Background thread writing the changelog and snapshots.
+     */
+    private final ScheduledExecutorService persister;
+
+    /**
+     * Current changelog generation; only touched by the persister thread after startup.
+     */
+    private long generation;
+
+    /**
+     * Open changelog of the current generation.
+     */
+    private DataOutputStream changelog;
+
+    /**
+     * Constructs a new in-memory database and loads the last snapshot and changelogs from {@code db.memory.path}.
+     *
+     * @param plugin The Bukkit/Spigot plugin instance.
+     * @throws IllegalStateException If the stored balances cannot be loaded; they are left untouched.
+     */
+    public MCEconomyMemory(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+
+        File dir = new File(plugin.getConfig().getString("db.memory.path", "memory"));
+        this.directory = (dir.isAbsolute() ? dir : new File(plugin.getDataFolder(), dir.getPath())).toPath();
+        long flushIntervalMillis = Math.max(10L, plugin.getConfig().getLong("db.memory.flush-interval-ms", 100L));
+        long snapshotIntervalMillis = Math.max(1000L, plugin.getConfig().getLong("db.memory.snapshot-interval-ms", 300000L));
+
+        try {
+            Files.createDirectories(directory);
+            load();
+            openChangelog(generation);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load the in-memory economy from " + directory, e);
+        }
+
+        this.persister = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "MCEconomy-MemoryStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.persister.scheduleWithFixedDelay(this::flushChanges, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        this.persister.scheduleWithFixedDelay(this::snapshot, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // --- Slots ---
+
+    /**
+     * Returns the slot of an account, or -1 if it does not exist.
+     */
+    private int find(String accountUuid, String accountType) {
+        Integer slot = index.get(AccountKey.of(accountUuid, accountType));
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the slot of an account, allocating a zero balance if it does not exist yet.
+     */
+    private int slot(AccountKey key) {
+        Integer slot = index.get(key);
+        if (slot != null) return slot;
+        return index.computeIfAbsent(key, k -> {
+            int allocated = nextSlot.getAndIncrement();
+            ensureCapacity(allocated, k);
+            changes.add(new Change(k, CREATE_RECORD, 0L));
+            return allocated;
+        });
+    }
+
+    /**
+     * Grows the page and key tables so that a slot is addressable and records its key.
+     */
+    private synchronized void ensureCapacity(int slot, AccountKey key) {
+        int page = slot / PAGE_SIZE;
+        long[][] current = pages;
+        if (page >= current.length) {
+            long[][] grown = Arrays.copyOf(current, Math.max(page + 1, current.length * 2));
+            for (int i = current.length; i < grown.length; i++) grown[i] = new long[PAGE_SIZE * CURRENCIES];
+            pages = grown;
+        }
+        AccountKey[] currentKeys = keys;
+        if (slot >= currentKeys.length) {
+            currentKeys = Arrays.copyOf(currentKeys, Math.max(slot + 1, currentKeys.length * 2));
+        }
+        currentKeys[slot] = key;
+        keys = currentKeys;
+    }
+
+    private long[] page(int slot) {
+        return pages[slot / PAGE_SIZE];
+    }
+
+    private static int offset(int slot, int currency) {
+        return currency * PAGE_SIZE + (slot & (PAGE_SIZE - 1));
+    }
+
+    private long load(int slot, int currency) {
+        return (long) LONGS.getAcquire(page(slot), offset(slot, currency));
+    }
+
+    /**
+     * Stores a balance and queues it for the changelog. Caller holds the slot's stripe lock.
+     */
+    private void store(AccountKey key, int slot, int currency, long value) {
+        LONGS.setRelease(page(slot), offset(slot, currency), value);
+        changes.add(new Change(key, (byte) currency, value));
+    }
+
+    private Object lock(int slot) {
+        return locks[slot & (STRIPES - 1)];
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    // --- IMCEconomyDB ---
+
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        int slot = find(accountUuid, accountType);
+        return slot < 0 ? 0 : clamp(load(slot, coinType.ordinal()));
+    }
+
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        int slot = find(accountUuid, accountType);
+        if (slot < 0) return AccountBalance.EMPTY;
+        int[] values = new int[CURRENCIES];
+        synchronized (lock(slot)) {
+            for (int i = 0; i < CURRENCIES; i++) values[i] = clamp(load(slot, i));
+        }
+        return AccountBalance.of(values);
+    }
+
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        for (AccountKey key : accounts) {
+            Integer slot = index.get(key);
+            result.put(key, slot == null ? 0 : clamp(load(slot, coinType.ordinal())));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount < 0) return false;
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        int slot = slot(key);
+        synchronized (lock(slot)) {
+            store(key, slot, coinType.ordinal(), amount);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        int slot = slot(key);
+        synchronized (lock(slot)) {
+            store(key, slot, coinType.ordinal(), load(slot, coinType.ordinal()) + amount);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        int slot = find(accountUuid, accountType);
+        if (slot < 0) return false;
+        AccountKey key = AccountKey.of(accountUuid, accountType);
+        synchronized (lock(slot)) {
+            long balance = load(slot, coinType.ordinal());
+            if (balance < amount) return false;
+            store(key, slot, coinType.ordinal(), balance - amount);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        int from = find(senderUuid, senderType);
+        if (from < 0) return false;
+        AccountKey sender = AccountKey.of(senderUuid, senderType);
+        AccountKey receiver = AccountKey.of(receiverUuid, receiverType);
+        int to = slot(receiver);
+        int currency = coinType.ordinal();
+
+        Object first = lock(Math.min(from & (STRIPES - 1), to & (STRIPES - 1)));
+        Object second = lock(Math.max(from & (STRIPES - 1), to & (STRIPES - 1)));
+        synchronized (first) {
+            synchronized (second) {
+                long balance = load(from, currency);
+                if (balance < amount) return false;
+                if (from == to) return true;
+                store(sender, from, currency, balance - amount);
+                store(receiver, to, currency, load(to, currency) + amount);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        slot(AccountKey.of(accountUuid, accountType));
+        return true;
+    }
+
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        for (Map.Entry<AccountKey, AccountBalance> entry : balances.entrySet()) {
+            AccountKey key = entry.getKey();
+            int slot = slot(key);
+            synchronized (lock(slot)) {
+                for (CurrencyType type : CurrencyType.values()) {
+                    store(key, slot, type.ordinal(), entry.getValue().get(type));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits accounts in slot order; each account's balances are read under its stripe lock.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        int count = nextSlot.get();
+        AccountKey[] slotKeys = keys;
+        for (int slot = 0; slot < count && slot < slotKeys.length; slot++) {
+            AccountKey key = slotKeys[slot];
+            if (key == null) continue;
+            int[] values = new int[CURRENCIES];
+            synchronized (lock(slot)) {
+                for (int i = 0; i < CURRENCIES; i++) values[i] = clamp(load(slot, i));
+            }
+            action.accept(key, AccountBalance.of(values));
+        }
+        return true;
+    }
+
+    /**
+     * Stops the background thread, appends pending changes and writes a final snapshot.
+     */
+    @Override
+    public void close() {
+        persister.shutdown();
+        try {
+            persister.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushChanges();
+        snapshot();
+        try {
+            if (changelog != null) changelog.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // --- Persistence ---
+
+    /**
+     * Appends every queued change to the current changelog.
+     */
+    private void flushChanges() {
+        if (changelog == null || changes.isEmpty()) return;
+        try {
+            Change change;
+            while ((change = changes.poll()) != null) {
+                changelog.writeUTF(change.key().getAccountUuid());
+                changelog.writeUTF(change.key().getAccountType());
+                changelog.writeByte(change.currency());
+                changelog.writeLong(change.value());
+            }
+            changelog.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Starts a new changelog generation and writes a snapshot that covers every older generation.
+     * The snapshot is written to a temporary file, forced to disk and moved into place atomically;
+     * older changelogs are only deleted once the move itself is durable.
+     */
+    private void snapshot() {
+        try {
+            flushChanges();
+            long next = generation + 1;
+            if (changelog != null) changelog.close();
+            openChangelog(next);
+
+            Path temp = directory.resolve("snapshot.bin.tmp");
+            int count = nextSlot.get();
+            AccountKey[] slotKeys = keys;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(next);
+                int written = 0;
+                for (int slot = 0; slot < count && slot < slotKeys.length; slot++) {
+                    if (slotKeys[slot] != null) written++;
+                }
+                out.writeInt(written);
+                for (int slot = 0; slot < count && slot < slotKeys.length; slot++) {
+                    AccountKey key = slotKeys[slot];
+                    if (key == null) continue;
+                    out.writeUTF(key.getAccountUuid());
+                    out.writeUTF(key.getAccountType());
+                    for (int currency = 0; currency < CURRENCIES; currency++) out.writeLong(load(slot, currency));
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve("snapshot.bin"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+
+            for (Path log : changelogs()) {
+                if (changelogGeneration(log) < next) Files.deleteIfExists(log);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads the snapshot with one sequential read, then replays the changelogs it does not cover.
+     */
+    private void load() throws IOException {
+        Path snapshot = directory.resolve("snapshot.bin");
+        long firstGeneration = 0;
+        if (Files.exists(snapshot)) {
+            byte[] bytes = Files.readAllBytes(snapshot);
+            try (DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(bytes))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                    throw new IOException("Unsupported snapshot format: " + snapshot);
+                }
+                firstGeneration = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    AccountKey key = AccountKey.of(in.readUTF(), in.readUTF());
+                    int slot = slot(key);
+                    for (int currency = 0; currency < CURRENCIES; currency++) {
+                        LONGS.setRelease(page(slot), offset(slot, currency), in.readLong());
+                    }
+                }
+            }
+        }
+
+        long replayed = 0;
+        long lastGeneration = firstGeneration;
+        for (Path log : changelogs()) {
+            long logGeneration = changelogGeneration(log);
+            if (logGeneration < firstGeneration) continue;
+            lastGeneration = Math.max(lastGeneration, logGeneration);
+            try (InputStream stream = new BufferedInputStream(Files.newInputStream(log), 1 << 16);
+                 DataInputStream in = new DataInputStream(stream)) {
+                while (true) {
+                    AccountKey key;
+                    byte currency;
+                    long value;
+                    try {
+                        key = AccountKey.of(in.readUTF(), in.readUTF());
+                        currency = in.readByte();
+                        value = in.readLong();
+                    } catch (EOFException e) {
+                        break; // Torn tail from a crash.
+                    }
+                    int slot = slot(key);
+                    if (currency >= 0 && currency < CURRENCIES) LONGS.setRelease(page(slot), offset(slot, currency), value);
+                    replayed++;
+                }
+            }
+        }
+        changes.clear();
+        generation = lastGeneration + 1;
+        logger.info("[MCEconomy] Loaded " + index.size() + " accounts into memory (" + replayed + " changelog records replayed)");
+    }
+
+    /**
+     * Forces the directory entry of the moved snapshot to disk.
+     * Not every platform can open a directory; there the move is left to the file system.
+     */
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened for syncing on this platform.
+        }
+    }
+
+    private void openChangelog(long newGeneration) throws IOException {
+        generation = newGeneration;
+        Path path = directory.resolve(String.format("changelog-%020d.bin", newGeneration));
+        changelog = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+    }
+
+    private List<Path> changelogs() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("changelog-")).sorted().toList();
+        }
+    }
+
+    private static long changelogGeneration(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("changelog-".length(), name.length() - ".bin".length()));
+        } catch (RuntimeException e) {
+            return -1L;
+        }
+    }
+}
@@ -2,21 +2,143 @@ package io.github.mcengine.mceconomy.common.database.mysql;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
 import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.database.MCEconomyDatabaseException;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.Plugin;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
 
 /**
  * MySQL implementation for MCEconomy.
+ * <p>
+ * The account key layout is chosen by {@code db.mysql.schema} (see {@link MCEconomyMySQLSchema}).
+ * </p>
+ * <p>
+ * When {@code db.mysql.replicas} lists read replicas, balance reads are spread over them round-robin.
+ * Writes always go to the primary, and reads of an account written within
+ * {@code db.mysql.read-after-write-ms} stay on the primary so callers see their own writes.
+ * </p>
  */
-public class MCEconomyMySQL implements IMCEconomyDB {
+public class MCEconomyMySQL implements IMCEconomyDB, MCEconomyMySQLRetries {
+    /**
+     * Maximum number of accounts per batched lookup query.
+     */
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    /**
+     * MySQL error code reported when a transaction was chosen as a deadlock victim.
+     */
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    /**
+     * MySQL error code reported when a row lock could not be acquired in time.
+     */
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    /**
+     * Size of the recent-writes map above which expired entries are swept, at most once per read-after-write window.
+     */
+    private static final int RECENT_WRITES_SWEEP_SIZE = 10000;
+
     /**
      * The connection pool data source.
      */
     private final HikariDataSource dataSource;
 
+    /**
+     * Adaptive pool sizing, or null when {@code db.mysql.pool.adaptive.enabled} is off.
+     */
+    private final MCEconomyMySQLPoolTuner poolTuner;
+
+    /**
+     * Read-only pools for balance reads, empty when no replicas are configured.
+     */
+    private final HikariDataSource[] replicas;
+
+    /**
+     * Round-robin position over {@link #replicas}.
+     */
+    private final AtomicInteger replicaCursor = new AtomicInteger();
+
+    /**
+     * How long reads of a written account stay on the primary.
+     */
+    private final long readAfterWriteNanos;
+
+    /**
+     * Time of the last write per account, used while replicas are configured.
+     */
+    private final Map<AccountKey, Long> recentWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the last sweep of {@link #recentWrites}.
+     */
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    /**
+     * Number of reads served by a replica.
+     */
+    private final AtomicLong replicaReads = new AtomicLong();
+
+    /**
+     * Number of reads sent to the primary although replicas are configured.
+     */
+    private final AtomicLong primaryReads = new AtomicLong();
+
+    /**
+     * Key layout of the account table.
+     */
+    private final MCEconomyMySQLSchema schema;
+
+    /**
+     * Primary key column list of the account table.
+     */
+    private final String keyColumns;
+
+    /**
+     * WHERE condition matching one account by primary key.
+     */
+    private final String keyWhere;
+
+    /**
+     * Maximum number of times a transfer is retried after a deadlock or lock wait timeout.
+     */
+    private final int maxTransferRetries;
+
+    /**
+     * Base delay before retrying a transfer, doubled on every further attempt.
+     */
+    private final long transferBackoffMillis;
+
+    /**
+     * Number of transfer attempts that were retried.
+     */
+    private final AtomicLong transferRetries = new AtomicLong();
+
+    /**
+     * Number of transfers that gave up after exhausting every retry.
+     */
+    private final AtomicLong transferRetriesExhausted = new AtomicLong();
+
     /**
      * Constructs a new MySQL database handler.
      * Initializes connection settings from the plugin configuration and attempts to connect.
@@ -24,38 +146,252 @@ public class MCEconomyMySQL implements IMCEconomyDB {
      * @param plugin The Bukkit/Spigot plugin instance.
      */
     public MCEconomyMySQL(Plugin plugin) {
-        String dbUser = envOrConfig("MCENGINE_MCECONOMY_MYSQL_USER", "MCENGINE_MYSQL_USER", "db.mysql.user", plugin, null);
-        String dbPass = envOrConfig("MCENGINE_MCECONOMY_MYSQL_PASS", "MCENGINE_MYSQL_PASS", "db.mysql.password", plugin, null);
-        String dbHost = envOrConfig("MCENGINE_MCECONOMY_MYSQL_HOST", "MCENGINE_MYSQL_HOST", "db.mysql.host", plugin, null);
-        String dbName = envOrConfig("MCENGINE_MCECONOMY_MYSQL_DATABASE_NAME", "MCENGINE_MYSQL_DATABASE_NAME", "db.mysql.database", plugin, null);
-        String dbPort = envOrConfig("MCENGINE_MCECONOMY_MYSQL_PORT", "MCENGINE_MYSQL_PORT", "db.mysql.port", plugin, "3306");
-        String dbSsl = envOrConfig("MCENGINE_MCECONOMY_MYSQL_SSL", "MCENGINE_MYSQL_SSL", "db.mysql.ssl", plugin, "false");
+        this(plugin, null);
+    }
+
+    /**
+     * Constructs a new MySQL database handler for one server of a sharded setup.
+     * Connection settings are read from the given section, falling back to {@code db.mysql};
+     * pool, schema and transfer settings are always read from {@code db.mysql}.
+     *
+     * @param plugin     The Bukkit/Spigot plugin instance.
+     * @param connection The section holding host, port, database, user, password and ssl,
+     *                   or null to use {@code db.mysql} and the environment.
+     * @throws IllegalStateException If the account table cannot be created or its key layout cannot be read.
+     */
+    public MCEconomyMySQL(Plugin plugin, ConfigurationSection connection) {
+        String dbUser = connectionSetting(connection, "user", "MCENGINE_MCECONOMY_MYSQL_USER", "MCENGINE_MYSQL_USER", plugin, null);
+        String dbPass = connectionSetting(connection, "password", "MCENGINE_MCECONOMY_MYSQL_PASS", "MCENGINE_MYSQL_PASS", plugin, null);
+        String dbHost = connectionSetting(connection, "host", "MCENGINE_MCECONOMY_MYSQL_HOST", "MCENGINE_MYSQL_HOST", plugin, null);
+        String dbName = connectionSetting(connection, "database", "MCENGINE_MCECONOMY_MYSQL_DATABASE_NAME", "MCENGINE_MYSQL_DATABASE_NAME", plugin, null);
+        String dbPort = connectionSetting(connection, "port", "MCENGINE_MCECONOMY_MYSQL_PORT", "MCENGINE_MYSQL_PORT", plugin, "3306");
+        String dbSsl = connectionSetting(connection, "ssl", "MCENGINE_MCECONOMY_MYSQL_SSL", "MCENGINE_MYSQL_SSL", plugin, "false");
+
+        HikariConfig config = poolConfig(plugin, jdbcUrl(dbHost, dbPort, dbName, dbSsl), dbUser, dbPass);
+        int poolSize = Math.max(1, plugin.getConfig().getInt("db.mysql.pool.maximum-pool-size", 10));
+        if (plugin.getConfig().getBoolean("db.mysql.pool.adaptive.enabled", false)) {
+            this.poolTuner = new MCEconomyMySQLPoolTuner(plugin, poolSize);
+            poolSize = poolTuner.clamp(poolSize);
+            config.setMetricsTrackerFactory(poolTuner);
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(Math.min(poolSize, Math.max(0, plugin.getConfig().getInt("db.mysql.pool.minimum-idle", 2))));
+        } else {
+            this.poolTuner = null;
+        }
+
+        this.dataSource = new HikariDataSource(config);
+        if (poolTuner != null) poolTuner.start(dataSource);
+
+        // Read replicas: a shard lists its own, otherwise db.mysql.replicas applies
+        ConfigurationSection replicaSection = connection != null
+                ? connection.getConfigurationSection("replicas")
+                : plugin.getConfig().getConfigurationSection("db.mysql.replicas");
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        if (replicaSection != null) {
+            for (String name : replicaSection.getKeys(false)) {
+                ConfigurationSection replica = replicaSection.getConfigurationSection(name);
+                if (replica == null) continue;
+                HikariConfig replicaConfig = poolConfig(plugin,
+                        jdbcUrl(replica.getString("host", dbHost), replica.getString("port", dbPort),
+                                replica.getString("database", dbName), replica.getString("ssl", dbSsl)),
+                        replica.getString("user", dbUser), replica.getString("password", dbPass));
+                replicaConfig.setReadOnly(true);
+                replicaPools.add(new HikariDataSource(replicaConfig));
+            }
+        }
+        this.replicas = replicaPools.toArray(new HikariDataSource[0]);
+        this.readAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, plugin.getConfig().getLong("db.mysql.read-after-write-ms", 2000L)));
+        this.maxTransferRetries = Math.max(0, plugin.getConfig().getInt("db.mysql.transfer.max-retries", 3));
+        this.transferBackoffMillis = Math.max(1L, plugin.getConfig().getLong("db.mysql.transfer.backoff-ms", 10L));
+
+        boolean compact = "compact".equalsIgnoreCase(plugin.getConfig().getString("db.mysql.schema", "legacy"));
+        try (Connection conn = dataSource.getConnection()) {
+            if (!compact && "binary".equals(MCEconomyMySQLSchema.uuidColumnType(conn))) {
+                plugin.getLogger().warning("[MCEconomy] economy_accounts already uses the compact key layout, ignoring db.mysql.schema: legacy");
+                compact = true;
+            } else if (compact) {
+                long invalid = MCEconomyMySQLSchema.countNonUuidKeys(conn);
+                if (invalid > 0) {
+                    plugin.getLogger().warning("[MCEconomy] Not migrating economy_accounts to the compact key layout: " + invalid +
+                            " accounts have identifiers that are not UUIDs. Keeping the legacy layout.");
+                    compact = false;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        MCEconomyMySQLSchema configured = new MCEconomyMySQLSchema(compact, dataSource::getConnection);
+        try {
+            createTable(configured,
+                    Math.max(1, plugin.getConfig().getInt("db.mysql.migration.chunk-size", 1000)), plugin.getLogger());
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
 
+        // A failed or refused migration leaves the legacy table in place, so bind keys to the layout actually present
+        String layout;
+        try (Connection conn = dataSource.getConnection()) {
+            layout = MCEconomyMySQLSchema.uuidColumnType(conn);
+        } catch (SQLException e) {
+            close();
+            throw new IllegalStateException("Unable to read the layout of " + MCEconomyMySQLSchema.TABLE, e);
+        }
+        if (layout == null) {
+            close();
+            throw new IllegalStateException("Unable to create " + MCEconomyMySQLSchema.TABLE);
+        }
+        if (compact && !"binary".equals(layout)) {
+            plugin.getLogger().warning("[MCEconomy] Migration of economy_accounts to the compact key layout did not complete, using the legacy layout");
+        }
+        boolean binary = "binary".equals(layout);
+        this.schema = configured.isCompact() == binary ? configured : new MCEconomyMySQLSchema(binary, dataSource::getConnection);
+        this.keyColumns = "account_uuid, " + schema.typeColumn();
+        this.keyWhere = "account_uuid = ? AND " + schema.typeColumn() + " = ?";
+
+        // Known types bind without a lookup; types registered later are resolved before a connection is borrowed
+        try (Connection conn = dataSource.getConnection()) {
+            schema.loadTypes(conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Resolve a connection setting from a shard section, or from the environment and {@code db.mysql} without one.
+     */
+    private String connectionSetting(ConfigurationSection connection, String key, String primaryEnv, String secondaryEnv,
+                                     Plugin plugin, String defaultValue) {
+        if (connection == null) return envOrConfig(primaryEnv, secondaryEnv, "db.mysql." + key, plugin, defaultValue);
+        String value = connection.getString(key);
+        if (value != null && !value.isEmpty()) return value;
+        value = plugin.getConfig().getString("db.mysql." + key);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    private static String jdbcUrl(String host, String port, String database, String ssl) {
+        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=" + ssl;
+    }
+
+    /**
+     * Builds a pool configuration with the shared {@code db.mysql.pool} settings.
+     */
+    private static HikariConfig poolConfig(Plugin plugin, String jdbcUrl, String user, String password) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl("jdbc:mysql://" + dbHost + ":" + dbPort + "/" + dbName + "?useSSL=" + dbSsl);
-        config.setUsername(dbUser);
-        config.setPassword(dbPass);
-        
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(password);
+
         // Pool Settings optimized for Minecraft
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setConnectionTimeout(30000); 
-        config.setLeakDetectionThreshold(10000);
-        
+        int poolSize = Math.max(1, plugin.getConfig().getInt("db.mysql.pool.maximum-pool-size", 10));
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(Math.min(poolSize, Math.max(0, plugin.getConfig().getInt("db.mysql.pool.minimum-idle", 2))));
+        config.setConnectionTimeout(plugin.getConfig().getLong("db.mysql.pool.connection-timeout-ms", 30000L));
+        config.setLeakDetectionThreshold(plugin.getConfig().getLong("db.mysql.pool.leak-detection-threshold-ms", 10000L));
+
         // Performance properties
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("cachePrepStmts", String.valueOf(plugin.getConfig().getBoolean("db.mysql.pool.cache-prep-stmts", true)));
+        config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(plugin.getConfig().getInt("db.mysql.pool.prep-stmt-cache-size", 250)));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(plugin.getConfig().getInt("db.mysql.pool.prep-stmt-cache-sql-limit", 2048)));
+        config.addDataSourceProperty("useServerPrepStmts", String.valueOf(plugin.getConfig().getBoolean("db.mysql.pool.use-server-prep-stmts", true)));
+        config.addDataSourceProperty("rewriteBatchedStatements", String.valueOf(plugin.getConfig().getBoolean("db.mysql.pool.rewrite-batched-statements", true)));
+        return config;
+    }
 
-        this.dataSource = new HikariDataSource(config);
+    // --- Replica routing ---
 
+    /**
+     * Records a write so reads of the account stay on the primary for the read-after-write window.
+     */
+    private void markWritten(String accountUuid, String accountType) {
+        if (replicas.length == 0) return;
+        long now = System.nanoTime();
+        recentWrites.put(AccountKey.of(accountUuid, accountType), now);
+        if (recentWrites.size() > RECENT_WRITES_SWEEP_SIZE) {
+            // Sweep at most once per window, so a large working set does not make every write O(n)
+            long last = lastSweep.get();
+            if (now - last > readAfterWriteNanos && lastSweep.compareAndSet(last, now)) {
+                recentWrites.values().removeIf(written -> now - written > readAfterWriteNanos);
+            }
+        }
+    }
+
+    private boolean recentlyWritten(AccountKey key) {
+        Long written = recentWrites.get(key);
+        return written != null && System.nanoTime() - written <= readAfterWriteNanos;
+    }
+
+    /**
+     * Returns a connection for reading the given accounts: a replica in round-robin order, or the
+     * primary when there are no replicas, an account was written within the window, or the replica fails.
+     */
+    private Connection readConnection(Collection<AccountKey> accounts) throws SQLException {
+        resolveTypes(accounts);
+        if (replicas.length == 0) return dataSource.getConnection();
+        for (AccountKey key : accounts) {
+            if (recentlyWritten(key)) {
+                primaryReads.incrementAndGet();
+                return dataSource.getConnection();
+            }
+        }
+        HikariDataSource replica = replicas[Math.floorMod(replicaCursor.getAndIncrement(), replicas.length)];
         try {
-            createTable();
+            Connection conn = replica.getConnection();
+            replicaReads.incrementAndGet();
+            return conn;
         } catch (SQLException e) {
-            e.printStackTrace();
+            primaryReads.incrementAndGet();
+            return dataSource.getConnection();
         }
     }
 
+    private Connection readConnection(String accountUuid, String accountType) throws SQLException {
+        return readConnection(List.of(AccountKey.of(accountUuid, accountType)));
+    }
+
+    // --- Type resolution ---
+
+    /**
+     * Registers the types of the given accounts before a connection is borrowed, so binding their keys
+     * never needs a second connection while the caller holds one, possibly inside a transaction.
+     */
+    private void resolveTypes(Collection<AccountKey> accounts) throws SQLException {
+        if (!schema.isCompact()) return;
+        Set<String> types = new HashSet<>();
+        for (AccountKey key : accounts) types.add(key.getAccountType());
+        schema.resolve(types);
+    }
+
+    /**
+     * Borrows a primary connection after resolving the account types about to be bound on it.
+     */
+    private Connection primaryConnection(String... accountTypes) throws SQLException {
+        schema.resolve(List.of(accountTypes));
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Borrows a primary connection after resolving the types of the accounts about to be bound on it.
+     */
+    private Connection primaryConnection(Collection<AccountKey> accounts) throws SQLException {
+        resolveTypes(accounts);
+        return dataSource.getConnection();
+    }
+
+    /**
+     * @return The number of reads served by a replica.
+     */
+    public long getReplicaReadCount() {
+        return replicaReads.get();
+    }
+
+    /**
+     * @return The number of reads sent to the primary although replicas are configured.
+     */
+    public long getPrimaryReadCount() {
+        return primaryReads.get();
+    }
+
     /**
      * Resolve configuration by preferring environment variables then falling back to plugin config.
      */
@@ -74,23 +410,17 @@ public class MCEconomyMySQL implements IMCEconomyDB {
 
     /**
      * Creates the economy_accounts table if it does not already exist.
-     * Uses a composite primary key (account_uuid + account_type).
+     * Uses a composite primary key (account_uuid + account type) in the configured key layout,
+     * migrating a legacy table first when the compact layout is enabled.
      *
+     * @param layout             The key layout to create or migrate to.
+     * @param migrationChunkSize Number of rows copied per migration batch.
+     * @param logger             Logger for migration progress.
      * @throws SQLException If an error occurs during table creation.
      */
-    private void createTable() throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS economy_accounts (" +
-                     "account_uuid VARCHAR(36) NOT NULL, " +
-                     "account_type VARCHAR(32) NOT NULL, " +
-                     "coin BIGINT NOT NULL DEFAULT 0, " +
-                     "copper BIGINT NOT NULL DEFAULT 0, " +
-                     "silver BIGINT NOT NULL DEFAULT 0, " +
-                     "gold BIGINT NOT NULL DEFAULT 0, " +
-                     "PRIMARY KEY (account_uuid, account_type))";
-        
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    private void createTable(MCEconomyMySQLSchema layout, int migrationChunkSize, Logger logger) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            layout.create(conn, migrationChunkSize, logger);
         }
     }
 
@@ -104,11 +434,11 @@ public class MCEconomyMySQL implements IMCEconomyDB {
      */
     @Override
     public boolean ensureAccountExist(String accountUuid, String accountType) {
-        String sql = "INSERT IGNORE INTO economy_accounts (account_uuid, account_type) VALUES (?, ?)";
-        try (Connection conn = dataSource.getConnection();
+        String sql = "INSERT IGNORE INTO economy_accounts (" + keyColumns + ") VALUES (?, ?)";
+        markWritten(accountUuid, accountType);
+        try (Connection conn = primaryConnection(accountType);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, accountUuid);
-            pstmt.setString(2, accountType);
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
             pstmt.executeUpdate();
             return true;
         } catch (SQLException e) {
@@ -119,21 +449,20 @@ public class MCEconomyMySQL implements IMCEconomyDB {
 
     /**
      * Retrieves the balance of a specific coin type for an account.
+     * Missing accounts are reported as 0 without creating a row.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
      * @param coinType    The currency type.
-     * @return The amount found in the database, or 0 if an error occurs.
+     * @return The amount found in the database, or 0 if the account is missing or an error occurs.
      */
     @Override
     public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
         String col = columnName(coinType);
-        ensureAccountExist(accountUuid, accountType);
-        String sql = "SELECT " + col + " FROM economy_accounts WHERE account_uuid = ? AND account_type = ?";
-        try (Connection conn = dataSource.getConnection();
+        String sql = "SELECT " + col + " FROM economy_accounts WHERE " + keyWhere;
+        try (Connection conn = readConnection(accountUuid, accountType);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, accountUuid);
-            pstmt.setString(2, accountType);
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) return rs.getInt(1);
             }
@@ -143,8 +472,142 @@ public class MCEconomyMySQL implements IMCEconomyDB {
         return 0;
     }
 
+    /**
+     * Retrieves the balance of every coin type for an account with a single SELECT.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return The balances found in the database, or an empty balance if the account is missing or an error occurs.
+     */
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        try (Connection conn = readConnection(accountUuid, accountType)) {
+            return queryAllCoins(conn, accountUuid, accountType);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return AccountBalance.EMPTY;
+        }
+    }
+
+    /**
+     * Reads every currency of an account from the primary, reporting errors instead of an empty balance.
+     */
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        try (Connection conn = primaryConnection(accountType)) {
+            return queryAllCoins(conn, accountUuid, accountType);
+        } catch (SQLException e) {
+            throw new MCEconomyDatabaseException("Failed to load balances of " + accountType + " " + accountUuid, e);
+        }
+    }
+
+    /**
+     * Reads every currency of an account like {@link #getAllCoins}, reporting errors instead of an empty balance.
+     */
+    @Override
+    public AccountBalance readAllCoins(String accountUuid, String accountType) {
+        try (Connection conn = readConnection(accountUuid, accountType)) {
+            return queryAllCoins(conn, accountUuid, accountType);
+        } catch (SQLException e) {
+            throw new MCEconomyDatabaseException("Failed to read balances of " + accountType + " " + accountUuid, e);
+        }
+    }
+
+    private AccountBalance queryAllCoins(Connection conn, String accountUuid, String accountType) throws SQLException {
+        String sql = "SELECT coin, copper, silver, gold FROM economy_accounts WHERE " + keyWhere;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return new AccountBalance(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
+            }
+        }
+        return AccountBalance.EMPTY;
+    }
+
+    /**
+     * Retrieves the balance of one coin type for many accounts.
+     * Accounts are looked up in chunks of {@value #LOOKUP_CHUNK_SIZE} using a row-value IN list,
+     * all on a single pooled connection.
+     *
+     * @param accounts The accounts to look up.
+     * @param coinType The currency type.
+     * @return A map containing every requested account; missing accounts or errors map to 0.
+     */
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        List<AccountKey> keys = new ArrayList<>(new LinkedHashSet<>(accounts));
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, keys.size() * 2));
+        for (AccountKey key : keys) result.put(key, 0);
+        if (keys.isEmpty()) return result;
+
+        try (Connection conn = readConnection(keys)) {
+            queryCoins(conn, keys, coinType, result);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    /**
+     * Reads one currency of many accounts from the primary, reporting errors instead of zeros.
+     */
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return loadCoins(accounts, coinType, true);
+    }
+
+    /**
+     * Reads one currency of many accounts like {@link #getCoins}, reporting errors instead of zeros.
+     */
+    @Override
+    public Map<AccountKey, Integer> readCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return loadCoins(accounts, coinType, false);
+    }
+
+    private Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType, boolean primary) {
+        List<AccountKey> keys = new ArrayList<>(new LinkedHashSet<>(accounts));
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, keys.size() * 2));
+        for (AccountKey key : keys) result.put(key, 0);
+        if (keys.isEmpty()) return result;
+
+        try (Connection conn = primary ? primaryConnection(keys) : readConnection(keys)) {
+            queryCoins(conn, keys, coinType, result);
+        } catch (SQLException e) {
+            throw new MCEconomyDatabaseException("Failed to load " + coinType + " balances of " + keys.size() + " accounts", e);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up one currency of distinct accounts in chunks and stores the balances found in the result.
+     */
+    private void queryCoins(Connection conn, List<AccountKey> keys, CurrencyType coinType, Map<AccountKey, Integer> result)
+            throws SQLException {
+        String col = columnName(coinType);
+        Map<AccountKey, AccountKey> requested = new HashMap<>(Math.max(16, keys.size() * 2));
+        for (AccountKey key : keys) requested.put(schema.canonical(key), key);
+        for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<AccountKey> chunk = keys.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, keys.size()));
+            String sql = "SELECT " + keyColumns + ", " + col + " FROM economy_accounts " +
+                         "WHERE (" + keyColumns + ") IN (" + rowPlaceholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (AccountKey key : chunk) {
+                    index = schema.bindKey(pstmt, index, key.getAccountUuid(), key.getAccountType());
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        AccountKey key = schema.readKey(rs, 1);
+                        result.put(requested.getOrDefault(key, key), rs.getInt(3));
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Sets the balance of a specific coin type for an account to a specific amount.
+     * Uses a single INSERT ... ON DUPLICATE KEY UPDATE so missing accounts are created in the same statement.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
@@ -156,13 +619,13 @@ public class MCEconomyMySQL implements IMCEconomyDB {
     public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
         if (amount < 0) return false;
         String col = columnName(coinType);
-        ensureAccountExist(accountUuid, accountType);
-        String sql = "UPDATE economy_accounts SET " + col + " = ? WHERE account_uuid = ? AND account_type = ?";
-        try (Connection conn = dataSource.getConnection();
+        String sql = "INSERT INTO economy_accounts (" + keyColumns + ", " + col + ") VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " + col + " = VALUES(" + col + ")";
+        markWritten(accountUuid, accountType);
+        try (Connection conn = primaryConnection(accountType);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, amount);
-            pstmt.setString(2, accountUuid);
-            pstmt.setString(3, accountType);
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
+            pstmt.setInt(3, amount);
             pstmt.executeUpdate();
             return true;
         } catch (SQLException e) {
@@ -173,6 +636,7 @@ public class MCEconomyMySQL implements IMCEconomyDB {
 
     /**
      * Adds an amount to the account's current balance for a specific coin type.
+     * Uses a single INSERT ... ON DUPLICATE KEY UPDATE so missing accounts are created in the same statement.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
@@ -183,14 +647,14 @@ public class MCEconomyMySQL implements IMCEconomyDB {
     @Override
     public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
         if (amount <= 0) return false;
-        ensureAccountExist(accountUuid, accountType);
         String col = columnName(coinType);
-        String sql = "UPDATE economy_accounts SET " + col + " = " + col + " + ? WHERE account_uuid = ? AND account_type = ?";
-        try (Connection conn = dataSource.getConnection();
+        String sql = "INSERT INTO economy_accounts (" + keyColumns + ", " + col + ") VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " + col + " = " + col + " + VALUES(" + col + ")";
+        markWritten(accountUuid, accountType);
+        try (Connection conn = primaryConnection(accountType);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, amount);
-            pstmt.setString(2, accountUuid);
-            pstmt.setString(3, accountType);
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
+            pstmt.setInt(3, amount);
             pstmt.executeUpdate();
             return true;
         } catch (SQLException e) {
@@ -214,12 +678,12 @@ public class MCEconomyMySQL implements IMCEconomyDB {
         if (amount <= 0) return false;
         String col = columnName(coinType);
         String sql = "UPDATE economy_accounts SET " + col + " = " + col + " - ? " +
-                     "WHERE account_uuid = ? AND account_type = ? AND " + col + " >= ?";
-        try (Connection conn = dataSource.getConnection();
+                     "WHERE " + keyWhere + " AND " + col + " >= ?";
+        markWritten(accountUuid, accountType);
+        try (Connection conn = primaryConnection(accountType);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, amount);
-            pstmt.setString(2, accountUuid);
-            pstmt.setString(3, accountType);
+            schema.bindKey(pstmt, 2, accountUuid, accountType);
             pstmt.setInt(4, amount);
             return pstmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -230,6 +694,12 @@ public class MCEconomyMySQL implements IMCEconomyDB {
 
     /**
      * Transfers an amount of a specific coin type from one account to another.
+     * <p>
+     * Every statement runs on one pooled connection inside one transaction. Both rows are locked in
+     * ascending key order (the receiver row is created while locking it), so concurrent transfers in
+     * opposite directions cannot deadlock each other. Transactions that still lose a deadlock or hit a
+     * lock wait timeout are retried with exponential backoff up to {@code db.mysql.transfer.max-retries} times.
+     * </p>
      *
      * @param senderUuid   The UUID of the sender.
      * @param senderType   The account type of the sender.
@@ -243,34 +713,245 @@ public class MCEconomyMySQL implements IMCEconomyDB {
     public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
         if (amount <= 0) return false;
         String col = columnName(coinType);
-        try (Connection conn = dataSource.getConnection()) {
+        markWritten(senderUuid, senderType);
+        markWritten(receiverUuid, receiverType);
+        return retrying(() -> primaryConnection(senderType, receiverType),
+                conn -> transfer(conn, senderUuid, senderType, receiverUuid, receiverType, col, amount));
+    }
+
+    /**
+     * One attempt of a transaction that may be retried.
+     */
+    @FunctionalInterface
+    private interface Attempt {
+        boolean run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs a transaction on a fresh connection, retrying it after a deadlock or lock wait timeout
+     * with exponential backoff, up to {@code db.mysql.transfer.max-retries} times.
+     *
+     * @return The result of the successful attempt, or false on any other error or once every retry failed.
+     */
+    private boolean retrying(MCEconomyMySQLSchema.ConnectionSource connection, Attempt attempt) {
+        for (int tries = 0; ; tries++) {
+            try (Connection conn = connection.get()) {
+                return attempt.run(conn);
+            } catch (SQLException e) {
+                if (!isRetryable(e) || tries >= maxTransferRetries) {
+                    if (isRetryable(e)) transferRetriesExhausted.incrementAndGet();
+                    e.printStackTrace();
+                    return false;
+                }
+                transferRetries.incrementAndGet();
+                if (!backoff(tries)) return false;
+            }
+        }
+    }
+
+    /**
+     * Runs one transfer attempt as a single transaction on the given connection.
+     */
+    private boolean transfer(Connection conn, String senderUuid, String senderType, String receiverUuid, String receiverType,
+                             String col, int amount) throws SQLException {
+        boolean prevAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            boolean self = senderUuid.equals(receiverUuid) && senderType.equals(receiverType);
+            boolean senderFirst = self || compareKeys(senderUuid, senderType, receiverUuid, receiverType) < 0;
+
+            int senderBalance;
+            if (senderFirst) {
+                senderBalance = lockSender(conn, senderUuid, senderType, col);
+                if (!self && senderBalance >= amount) lockReceiver(conn, receiverUuid, receiverType);
+            } else {
+                lockReceiver(conn, receiverUuid, receiverType);
+                senderBalance = lockSender(conn, senderUuid, senderType, col);
+            }
+
+            // A missing sender reports -1, so it is rejected here like any other insufficient balance.
+            if (senderBalance < amount) {
+                conn.rollback();
+                return false;
+            }
+            if (!self) {
+                String updateSql = "UPDATE economy_accounts SET " + col + " = " + col + " + ? " +
+                                   "WHERE " + keyWhere;
+                try (PreparedStatement update = conn.prepareStatement(updateSql)) {
+                    update.setInt(1, -amount);
+                    schema.bindKey(update, 2, senderUuid, senderType);
+                    update.addBatch();
+                    update.setInt(1, amount);
+                    schema.bindKey(update, 2, receiverUuid, receiverType);
+                    update.addBatch();
+                    update.executeBatch();
+                }
+            }
+
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(prevAutoCommit);
+        }
+    }
+
+    /**
+     * Locks the sender row and returns its balance, or -1 if the account does not exist.
+     */
+    private int lockSender(Connection conn, String accountUuid, String accountType, String col) throws SQLException {
+        String sql = "SELECT " + col + " FROM economy_accounts WHERE " + keyWhere + " FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Locks the receiver row, creating it first if the account does not exist yet.
+     */
+    private void lockReceiver(Connection conn, String accountUuid, String accountType) throws SQLException {
+        String sql = "INSERT INTO economy_accounts (" + keyColumns + ") VALUES (?, ?) " +
+                     "ON DUPLICATE KEY UPDATE account_uuid = account_uuid";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            schema.bindKey(pstmt, 1, accountUuid, accountType);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Orders accounts by their primary key so every transaction locks rows in the same order.
+     */
+    private static int compareKeys(String uuidA, String typeA, String uuidB, String typeB) {
+        int cmp = uuidA.compareTo(uuidB);
+        return cmp != 0 ? cmp : typeA.compareTo(typeB);
+    }
+
+    /**
+     * Returns the entries of a batch in the lock order of {@link #compareKeys}.
+     */
+    private static <V> List<Map.Entry<AccountKey, V>> inLockOrder(Map<AccountKey, V> batch) {
+        List<Map.Entry<AccountKey, V>> entries = new ArrayList<>(batch.entrySet());
+        entries.sort((a, b) -> compareKeys(a.getKey().getAccountUuid(), a.getKey().getAccountType(),
+                b.getKey().getAccountUuid(), b.getKey().getAccountType()));
+        return entries;
+    }
+
+    /**
+     * Checks whether a failed transaction lost a deadlock or timed out waiting for a row lock.
+     */
+    private static boolean isRetryable(SQLException e) {
+        return e.getErrorCode() == ER_LOCK_DEADLOCK || e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+                || "40001".equals(e.getSQLState());
+    }
+
+    /**
+     * Sleeps before the next transfer attempt using exponential backoff with jitter.
+     *
+     * @return false if the thread was interrupted while waiting.
+     */
+    private boolean backoff(int attempt) {
+        long base = transferBackoffMillis << Math.min(attempt, 10);
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @return The number of transfer and bulk write attempts retried after a deadlock or lock wait timeout.
+     */
+    @Override
+    public long getTransferRetryCount() {
+        return transferRetries.get();
+    }
+
+    /**
+     * @return The number of transfers and bulk writes that failed because every retry hit a deadlock or lock wait timeout.
+     */
+    @Override
+    public long getTransferRetriesExhaustedCount() {
+        return transferRetriesExhausted.get();
+    }
+
+    /**
+     * Writes the complete balance of several accounts as a single JDBC batch inside one transaction.
+     * Uses INSERT ... ON DUPLICATE KEY UPDATE so missing accounts are created in the same statement.
+     * Rows are written in the lock order transfers use, and deadlocks are retried like transfers.
+     *
+     * @param balances The balances to store, keyed by account.
+     * @return true if the batch was committed, false on error.
+     */
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        if (balances.isEmpty()) return true;
+        String sql = "INSERT INTO economy_accounts (" + keyColumns + ", coin, copper, silver, gold) " +
+                     "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                     "coin = VALUES(coin), copper = VALUES(copper), silver = VALUES(silver), gold = VALUES(gold)";
+        for (AccountKey key : balances.keySet()) markWritten(key.getAccountUuid(), key.getAccountType());
+        List<Map.Entry<AccountKey, AccountBalance>> entries = inLockOrder(balances);
+        return retrying(() -> primaryConnection(balances.keySet()), conn -> {
             boolean prevAutoCommit = conn.getAutoCommit();
             conn.setAutoCommit(false);
-            try {
-                ensureAccountExist(senderUuid, senderType);
-                ensureAccountExist(receiverUuid, receiverType);
-
-                String withdrawSql = "UPDATE economy_accounts SET " + col + " = " + col + " - ? " +
-                                     "WHERE account_uuid = ? AND account_type = ? AND " + col + " >= ?";
-                try (PreparedStatement withdraw = conn.prepareStatement(withdrawSql)) {
-                    withdraw.setInt(1, amount);
-                    withdraw.setString(2, senderUuid);
-                    withdraw.setString(3, senderType);
-                    withdraw.setInt(4, amount);
-                    if (withdraw.executeUpdate() == 0) {
-                        conn.rollback();
-                        return false;
-                    }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Map.Entry<AccountKey, AccountBalance> entry : entries) {
+                    AccountBalance balance = entry.getValue();
+                    schema.bindKey(pstmt, 1, entry.getKey().getAccountUuid(), entry.getKey().getAccountType());
+                    pstmt.setInt(3, balance.getCoin());
+                    pstmt.setInt(4, balance.getCopper());
+                    pstmt.setInt(5, balance.getSilver());
+                    pstmt.setInt(6, balance.getGold());
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(prevAutoCommit);
+            }
+        });
+    }
 
-                String depositSql = "UPDATE economy_accounts SET " + col + " = " + col + " + ? WHERE account_uuid = ? AND account_type = ?";
-                try (PreparedStatement deposit = conn.prepareStatement(depositSql)) {
-                    deposit.setInt(1, amount);
-                    deposit.setString(2, receiverUuid);
-                    deposit.setString(3, receiverType);
-                    deposit.executeUpdate();
+    /**
+     * Adds an amount of one coin type to several accounts as a single JDBC batch inside one transaction.
+     * Uses INSERT ... ON DUPLICATE KEY UPDATE so missing accounts are created in the same statement.
+     * Rows are written in the lock order transfers use, and deadlocks are retried like transfers.
+     *
+     * @param amounts  The amount to add to each account.
+     * @param coinType The currency type.
+     * @return true if the batch was committed, false if an amount was not positive or on error.
+     */
+    @Override
+    public boolean addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        for (int amount : amounts.values()) {
+            if (amount <= 0) return false;
+        }
+        if (amounts.isEmpty()) return true;
+        String col = columnName(coinType);
+        String sql = "INSERT INTO economy_accounts (" + keyColumns + ", " + col + ") VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " + col + " = " + col + " + VALUES(" + col + ")";
+        for (AccountKey key : amounts.keySet()) markWritten(key.getAccountUuid(), key.getAccountType());
+        List<Map.Entry<AccountKey, Integer>> entries = inLockOrder(amounts);
+        return retrying(() -> primaryConnection(amounts.keySet()), conn -> {
+            boolean prevAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Map.Entry<AccountKey, Integer> entry : entries) {
+                    schema.bindKey(pstmt, 1, entry.getKey().getAccountUuid(), entry.getKey().getAccountType());
+                    pstmt.setInt(3, entry.getValue());
+                    pstmt.addBatch();
                 }
-
+                pstmt.executeBatch();
                 conn.commit();
                 return true;
             } catch (SQLException e) {
@@ -279,12 +960,50 @@ public class MCEconomyMySQL implements IMCEconomyDB {
             } finally {
                 conn.setAutoCommit(prevAutoCommit);
             }
+        });
+    }
+
+    /**
+     * Streams the account table row by row from the primary, so writes flushed just before are included.
+     *
+     * @param action Receives each account and its balances.
+     * @return true if every account was visited, false on error.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        try (Connection conn = dataSource.getConnection()) {
+            schema.stream(conn, action);
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Builds a comma separated list of {@code (?, ?)} row placeholders.
+     */
+    private static String rowPlaceholders(int rows) {
+        StringBuilder sb = new StringBuilder(rows * 8);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("(?, ?)");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds a comma separated list of {@code ?} placeholders.
+     */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
     /**
      * Resolve the trusted column name for a currency type.
      */
@@ -298,13 +1017,207 @@ public class MCEconomyMySQL implements IMCEconomyDB {
         };
     }
 
+    // --- Cross-shard transfers (used by MCEconomyMySQLSharded) ---
+
+    /**
+     * Creates the outbox and inbox tables used by cross-shard transfers if they do not already exist.
+     */
+    void createTransferTables() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS economy_transfer_outbox (" +
+                         "transfer_id CHAR(36) NOT NULL PRIMARY KEY, " +
+                         "sender_uuid VARCHAR(36) NOT NULL, " +
+                         "sender_type VARCHAR(32) NOT NULL, " +
+                         "receiver_uuid VARCHAR(36) NOT NULL, " +
+                         "receiver_type VARCHAR(32) NOT NULL, " +
+                         "coin_type VARCHAR(16) NOT NULL, " +
+                         "amount INT NOT NULL, " +
+                         "created_at BIGINT NOT NULL)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS economy_transfer_inbox (" +
+                         "transfer_id CHAR(36) NOT NULL PRIMARY KEY, " +
+                         "applied_at BIGINT NOT NULL)");
+        }
+    }
+
+    /**
+     * Debits the sender and records the transfer in the outbox in one transaction.
+     *
+     * @return true if the sender had enough funds and the transfer was recorded.
+     */
+    boolean debitToOutbox(MCEconomyMySQLSharded.Transfer transfer) {
+        String col = columnName(transfer.coinType());
+        String debitSql = "UPDATE economy_accounts SET " + col + " = " + col + " - ? " +
+                          "WHERE " + keyWhere + " AND " + col + " >= ?";
+        String outboxSql = "INSERT INTO economy_transfer_outbox (transfer_id, sender_uuid, sender_type, receiver_uuid, " +
+                           "receiver_type, coin_type, amount, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        markWritten(transfer.senderUuid(), transfer.senderType());
+        try (Connection conn = primaryConnection(transfer.senderType())) {
+            boolean prevAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement debit = conn.prepareStatement(debitSql);
+                 PreparedStatement outbox = conn.prepareStatement(outboxSql)) {
+                debit.setInt(1, transfer.amount());
+                schema.bindKey(debit, 2, transfer.senderUuid(), transfer.senderType());
+                debit.setInt(4, transfer.amount());
+                if (debit.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                outbox.setString(1, transfer.id());
+                outbox.setString(2, transfer.senderUuid());
+                outbox.setString(3, transfer.senderType());
+                outbox.setString(4, transfer.receiverUuid());
+                outbox.setString(5, transfer.receiverType());
+                outbox.setString(6, transfer.coinType().name());
+                outbox.setInt(7, transfer.amount());
+                outbox.setLong(8, System.currentTimeMillis());
+                outbox.executeUpdate();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(prevAutoCommit);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Credits the receiver of a transfer unless the inbox shows it was already credited.
+     * The inbox row and the credit commit together, so retrying a transfer never credits twice.
+     *
+     * @return true if the receiver holds the credit, false on error.
+     */
+    boolean creditFromInbox(MCEconomyMySQLSharded.Transfer transfer) {
+        String col = columnName(transfer.coinType());
+        String inboxSql = "INSERT IGNORE INTO economy_transfer_inbox (transfer_id, applied_at) VALUES (?, ?)";
+        String creditSql = "INSERT INTO economy_accounts (" + keyColumns + ", " + col + ") VALUES (?, ?, ?) " +
+                           "ON DUPLICATE KEY UPDATE " + col + " = " + col + " + VALUES(" + col + ")";
+        markWritten(transfer.receiverUuid(), transfer.receiverType());
+        try (Connection conn = primaryConnection(transfer.receiverType())) {
+            boolean prevAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement inbox = conn.prepareStatement(inboxSql);
+                 PreparedStatement credit = conn.prepareStatement(creditSql)) {
+                inbox.setString(1, transfer.id());
+                inbox.setLong(2, System.currentTimeMillis());
+                if (inbox.executeUpdate() > 0) {
+                    schema.bindKey(credit, 1, transfer.receiverUuid(), transfer.receiverType());
+                    credit.setInt(3, transfer.amount());
+                    credit.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(prevAutoCommit);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Removes a delivered transfer from the outbox.
+     */
+    void deleteOutbox(String transferId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM economy_transfer_outbox WHERE transfer_id = ?")) {
+            pstmt.setString(1, transferId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The ids of inbox markers applied before the cutoff, oldest first.
+     */
+    List<String> expiredInbox(long appliedBefore) throws SQLException {
+        List<String> expired = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT transfer_id FROM economy_transfer_inbox WHERE applied_at < ? ORDER BY applied_at")) {
+            pstmt.setLong(1, appliedBefore);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) expired.add(rs.getString(1));
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return The given transfer ids that are still waiting in this server's outbox.
+     */
+    Set<String> outboxContaining(Collection<String> transferIds) throws SQLException {
+        Set<String> found = new HashSet<>();
+        if (transferIds.isEmpty()) return found;
+        String sql = "SELECT transfer_id FROM economy_transfer_outbox WHERE transfer_id IN (" + placeholders(transferIds.size()) + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String id : transferIds) pstmt.setString(index++, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) found.add(rs.getString(1));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Removes inbox markers. A marker may only go once its transfer is gone from the sender's outbox,
+     * otherwise a later retry of that transfer would credit the receiver again.
+     */
+    void deleteInbox(Collection<String> transferIds) throws SQLException {
+        if (transferIds.isEmpty()) return;
+        String sql = "DELETE FROM economy_transfer_inbox WHERE transfer_id IN (" + placeholders(transferIds.size()) + ")";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String id : transferIds) pstmt.setString(index++, id);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * @return Every transfer debited on this server that has not been delivered yet, oldest first.
+     */
+    List<MCEconomyMySQLSharded.Transfer> pendingTransfers() {
+        List<MCEconomyMySQLSharded.Transfer> pending = new ArrayList<>();
+        String sql = "SELECT transfer_id, sender_uuid, sender_type, receiver_uuid, receiver_type, coin_type, amount " +
+                     "FROM economy_transfer_outbox ORDER BY created_at";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                pending.add(new MCEconomyMySQLSharded.Transfer(rs.getString(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getString(5), CurrencyType.valueOf(rs.getString(6)), rs.getInt(7)));
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            e.printStackTrace();
+        }
+        return pending;
+    }
+
     /**
      * Closes the MySQL connection pool and releases resources.
      */
     @Override
     public void close() {
+        if (poolTuner != null) poolTuner.stop();
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
+        for (HikariDataSource replica : replicas) {
+            if (!replica.isClosed()) replica.close();
+        }
     }
 }
@@ -0,0 +1,186 @@
+package io.github.mcengine.mceconomy.common.database.mysql;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Adaptive sizing for the MySQL connection pool.
+ * <p>
+ * Installed as the pool's metrics tracker, it records how long callers wait to borrow a connection.
+ * Every {@code interval-ms} it grows the maximum pool size when callers waited longer than
+ * {@code target-wait-ms} or were still queued, and shrinks it again after several quiet intervals
+ * in which most connections sat idle. The size always stays within {@code min-size..max-size}.
+ * </p>
+ */
+public class MCEconomyMySQLPoolTuner implements MetricsTrackerFactory {
+
+    /**
+     * Number of consecutive quiet intervals required before the pool is shrunk.
+     */
+    private static final int QUIET_INTERVALS_BEFORE_SHRINK = 6;
+
+    /**
+     * Logger used to report size changes.
+     */
+    private final Logger logger;
+
+    /**
+     * Lower bound of the maximum pool size.
+     */
+    private final int minSize;
+
+    /**
+     * Upper bound of the maximum pool size.
+     */
+    private final int maxSize;
+
+    /**
+     * Time between two sizing decisions in milliseconds.
+     */
+    private final long intervalMillis;
+
+    /**
+     * Average borrow wait above which the pool is grown, in nanoseconds.
+     */
+    private final long targetWaitNanos;
+
+    /**
+     * Total borrow wait since the last sizing decision.
+     */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Number of borrows since the last sizing decision.
+     */
+    private final LongAdder borrows = new LongAdder();
+
+    /**
+     * Number of borrows that timed out since the last sizing decision.
+     */
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Background thread taking the sizing decisions; created by {@link #start}.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Consecutive intervals without contention and with mostly idle connections.
+     */
+    private int quietIntervals;
+
+    /**
+     * Constructs a new tuner from {@code db.mysql.pool.adaptive} in the plugin configuration.
+     *
+     * @param plugin          The Bukkit/Spigot plugin instance.
+     * @param initialPoolSize The configured maximum pool size, used to derive default bounds.
+     */
+    public MCEconomyMySQLPoolTuner(Plugin plugin, int initialPoolSize) {
+        this.logger = plugin.getLogger();
+        this.minSize = Math.max(1, plugin.getConfig().getInt("db.mysql.pool.adaptive.min-size", 2));
+        this.maxSize = Math.max(minSize, plugin.getConfig().getInt("db.mysql.pool.adaptive.max-size", Math.max(initialPoolSize, 50)));
+        this.intervalMillis = Math.max(1000L, plugin.getConfig().getLong("db.mysql.pool.adaptive.interval-ms", 10000L));
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, plugin.getConfig().getLong("db.mysql.pool.adaptive.target-wait-ms", 5L)));
+    }
+
+    /**
+     * Clamps a configured pool size into the adaptive bounds.
+     *
+     * @param size The configured size.
+     * @return The size the pool should start with.
+     */
+    public int clamp(int size) {
+        return Math.min(maxSize, Math.max(minSize, size));
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                waitNanos.add(elapsedAcquiredNanos);
+                borrows.increment();
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Starts periodic sizing of the given pool.
+     *
+     * @param dataSource The pool created with this tuner as its metrics tracker factory.
+     */
+    public void start(HikariDataSource dataSource) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "MCEconomy-PoolTuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> tune(dataSource), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic sizing.
+     */
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    /**
+     * Takes one sizing decision from the statistics gathered since the previous one.
+     */
+    private void tune(HikariDataSource dataSource) {
+        try {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            if (pool == null || config == null) return;
+
+            long count = borrows.sumThenReset();
+            long waited = waitNanos.sumThenReset();
+            long timedOut = timeouts.sumThenReset();
+            long averageWait = count == 0 ? 0 : waited / count;
+            int waiting = pool.getThreadsAwaitingConnection();
+            int active = pool.getActiveConnections();
+            int current = config.getMaximumPoolSize();
+
+            if ((timedOut > 0 || waiting > 0 || averageWait > targetWaitNanos) && current < maxSize) {
+                quietIntervals = 0;
+                resize(config, Math.min(maxSize, current + Math.max(1, current / 4)), current);
+            } else if (waiting == 0 && averageWait <= targetWaitNanos && active <= current / 2) {
+                if (++quietIntervals >= QUIET_INTERVALS_BEFORE_SHRINK && current > minSize) {
+                    quietIntervals = 0;
+                    resize(config, Math.max(minSize, Math.max(active + 1, current - Math.max(1, current / 4))), current);
+                }
+            } else {
+                quietIntervals = 0;
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Applies a new maximum pool size, lowering the minimum idle count with it when needed.
+     */
+    private void resize(HikariConfigMXBean config, int size, int previous) {
+        if (size == previous) return;
+        if (size < config.getMinimumIdle()) config.setMinimumIdle(size);
+        config.setMaximumPoolSize(size);
+        logger.info("[MCEconomy] Resized MySQL pool from " + previous + " to " + size + " connections");
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.mcengine.mceconomy.common.database.mysql;
+
+/**
+ * Deadlock and lock wait timeout retry counters of a MySQL backend, surfaced through the provider.
+ */
+public interface MCEconomyMySQLRetries {
+
+    /**
+     * @return The number of transaction attempts retried after a deadlock or lock wait timeout.
+     */
+    long getTransferRetryCount();
+
+    /**
+     * @return The number of transactions that failed because every retry hit a deadlock or lock wait timeout.
+     */
+    long getTransferRetriesExhaustedCount();
+}
@@ -0,0 +1,513 @@
+package io.github.mcengine.mceconomy.common.database.mysql;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Key layout of the MySQL economy_accounts table.
+ * <p>
+ * The legacy layout keys accounts by {@code VARCHAR(36) account_uuid + VARCHAR(32) account_type}.
+ * The compact layout stores the UUID as {@code BINARY(16)} and the account type as a
+ * {@code SMALLINT} id from the economy_account_types table, which shrinks the clustered index
+ * from up to 68 bytes to 18 bytes per row. Compact keys only accept UUID account identifiers.
+ * </p>
+ * <p>
+ * Account types are registered on a dedicated autocommit connection to the primary, so a type id is
+ * never cached for a row that a rolled back transaction or a read-only replica did not keep. Callers
+ * {@link #resolve} the types they are about to bind before borrowing their own connection, so binding
+ * and reading keys never waits for a second connection from the pool.
+ * </p>
+ */
+public class MCEconomyMySQLSchema {
+
+    /**
+     * Name of the account table in both layouts.
+     */
+    public static final String TABLE = "economy_accounts";
+
+    /**
+     * Temporary table the compact layout is built in while migrating.
+     */
+    private static final String MIGRATION_TABLE = "economy_accounts_v2";
+
+    /**
+     * Name the legacy table is kept under after a migration.
+     */
+    private static final String LEGACY_TABLE = "economy_accounts_legacy";
+
+    /**
+     * Triggers mirroring writes on the legacy table into the migration table, by event.
+     */
+    private static final Map<String, String> MIGRATION_TRIGGERS = Map.of(
+            "INSERT", "economy_accounts_migrate_insert",
+            "UPDATE", "economy_accounts_migrate_update",
+            "DELETE", "economy_accounts_migrate_delete");
+
+    /**
+     * MySQL regular expression matching the identifiers the compact layout can store.
+     */
+    private static final String UUID_REGEXP = "'^[0-9A-Fa-f]{8}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{12}$'";
+
+    /**
+     * Opens connections to the primary database.
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+
+        /**
+         * @return A new connection to the primary; the caller closes it.
+         * @throws SQLException If no connection can be opened.
+         */
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Whether the compact key layout is in use.
+     */
+    private final boolean compact;
+
+    /**
+     * Account type ids by name (compact layout only).
+     */
+    private final Map<String, Integer> typeIds = new ConcurrentHashMap<>();
+
+    /**
+     * Account type names by id (compact layout only).
+     */
+    private final Map<Integer, String> typeNames = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the primary connections account types are registered and resolved on.
+     */
+    private final ConnectionSource primary;
+
+    /**
+     * @param compact Whether to use the compact key layout.
+     * @param primary Opens connections to the primary, used to register and resolve account types.
+     */
+    public MCEconomyMySQLSchema(boolean compact, ConnectionSource primary) {
+        this.compact = compact;
+        this.primary = primary;
+    }
+
+    /**
+     * @return true if accounts are keyed by binary UUID and type id.
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * @return The column holding the account type (or type id).
+     */
+    public String typeColumn() {
+        return compact ? "type_id" : "account_type";
+    }
+
+    /**
+     * Binds an account key to two consecutive parameters.
+     *
+     * @param pstmt       The statement.
+     * @param index       The index of the UUID parameter; the type follows it.
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return The index of the next parameter.
+     * @throws SQLException If the key cannot be bound, e.g. a non-UUID identifier in the compact layout.
+     */
+    public int bindKey(PreparedStatement pstmt, int index, String accountUuid, String accountType) throws SQLException {
+        if (!compact) {
+            pstmt.setString(index, accountUuid);
+            pstmt.setString(index + 1, accountType);
+        } else {
+            pstmt.setBytes(index, toBytes(accountUuid));
+            pstmt.setInt(index + 1, typeId(accountType));
+        }
+        return index + 2;
+    }
+
+    /**
+     * Reads an account key from two consecutive result columns.
+     *
+     * @param rs     The result set positioned on a row.
+     * @param column The index of the UUID column; the type column follows it.
+     * @return The account key.
+     * @throws SQLException If the columns cannot be read.
+     */
+    public AccountKey readKey(ResultSet rs, int column) throws SQLException {
+        if (!compact) return AccountKey.of(rs.getString(column), rs.getString(column + 1));
+        ByteBuffer bytes = ByteBuffer.wrap(rs.getBytes(column));
+        String uuid = new UUID(bytes.getLong(), bytes.getLong()).toString();
+        return AccountKey.of(uuid, typeName(rs.getInt(column + 1)));
+    }
+
+    /**
+     * Normalizes a key the way {@link #readKey} reports it, so requested keys can be matched with result rows.
+     *
+     * @param key The requested key.
+     * @return The key as returned by the database.
+     */
+    public AccountKey canonical(AccountKey key) {
+        if (!compact) return key;
+        String uuid = key.getAccountUuid().toLowerCase(Locale.ROOT);
+        return uuid.equals(key.getAccountUuid()) ? key : AccountKey.of(uuid, key.getAccountType());
+    }
+
+    /**
+     * Loads every registered account type into the cache.
+     *
+     * @param conn The connection to use.
+     * @throws SQLException If the types cannot be read.
+     */
+    public void loadTypes(Connection conn) throws SQLException {
+        if (!compact) return;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT type_id, type_name FROM economy_account_types")) {
+            while (rs.next()) {
+                typeIds.put(rs.getString(2), rs.getInt(1));
+                typeNames.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+    }
+
+    /**
+     * Makes sure every given account type has a cached id, registering unknown types on the primary.
+     * Call this before borrowing the connection keys are bound on: {@link #bindKey} and {@link #readKey}
+     * only use the cache and never open a second connection while the caller holds one.
+     *
+     * @param accountTypes The account types about to be bound.
+     * @throws SQLException If a type cannot be registered.
+     */
+    public void resolve(Collection<String> accountTypes) throws SQLException {
+        if (!compact) return;
+        Connection conn = null;
+        try {
+            for (String accountType : accountTypes) {
+                if (typeIds.containsKey(accountType)) continue;
+                if (conn == null) {
+                    conn = primary.get();
+                    conn.setAutoCommit(true);
+                }
+                register(conn, accountType);
+            }
+        } finally {
+            if (conn != null) conn.close();
+        }
+    }
+
+    /**
+     * Streams every row of the account table through a server-side cursor.
+     * Account type names are loaded first on the same connection, so the scan does not stop for lookups.
+     *
+     * @param conn   The connection to use; it is busy until the scan ends.
+     * @param action Receives each account and its balances.
+     * @return The number of rows visited.
+     * @throws SQLException If the scan fails.
+     */
+    public long stream(Connection conn, BiConsumer<AccountKey, AccountBalance> action) throws SQLException {
+        loadTypes(conn);
+
+        long rows = 0;
+        String sql = "SELECT account_uuid, " + typeColumn() + ", coin, copper, silver, gold FROM " + TABLE;
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the whole result.
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    action.accept(readKey(rs, 1), new AccountBalance(rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6)));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Creates the account table in the configured layout, migrating a legacy table when the compact layout is enabled.
+     *
+     * @param conn      The connection to use.
+     * @param chunkSize Number of rows copied per migration batch.
+     * @param logger    Logger for migration progress.
+     * @throws SQLException If the schema cannot be created.
+     */
+    public void create(Connection conn, int chunkSize, Logger logger) throws SQLException {
+        if (!compact) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(tableSql(TABLE));
+            }
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS economy_account_types (" +
+                         "type_id SMALLINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                         "type_name VARCHAR(32) NOT NULL UNIQUE)");
+        }
+
+        String layout = uuidColumnType(conn);
+        if ("binary".equals(layout)) return;
+        if (layout == null) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(tableSql(TABLE));
+            }
+            return;
+        }
+        migrate(conn, chunkSize, logger);
+    }
+
+    /**
+     * Counts accounts whose identifier is not a UUID and therefore cannot be stored in the compact layout.
+     *
+     * @param conn The connection to use.
+     * @return The number of such accounts in a legacy table, or 0 if there is no legacy table.
+     * @throws SQLException If the lookup fails.
+     */
+    public static long countNonUuidKeys(Connection conn) throws SQLException {
+        if (!"varchar".equals(uuidColumnType(conn))) return 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + TABLE + " WHERE account_uuid NOT REGEXP " + UUID_REGEXP)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Detects the layout of an existing account table.
+     *
+     * @param conn The connection to use.
+     * @return The data type of account_uuid ("varchar" or "binary"), or null if the table does not exist.
+     * @throws SQLException If the lookup fails.
+     */
+    public static String uuidColumnType(Connection conn) throws SQLException {
+        String sql = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'account_uuid'";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, TABLE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1).toLowerCase(Locale.ROOT) : null;
+            }
+        }
+    }
+
+    /**
+     * Migrates the legacy table to the compact layout while it stays in use.
+     * <ol>
+     *     <li>Triggers on the legacy table mirror every insert, update and delete into {@value #MIGRATION_TABLE}
+     *     and reject identifiers that are not UUIDs.</li>
+     *     <li>Existing rows are copied in keyset-paginated chunks. Each chunk share-locks its source rows,
+     *     so a concurrent write waits for the chunk and its trigger then overwrites the copied row;
+     *     rows the triggers already wrote are never overwritten by the copy.</li>
+     *     <li>One atomic RENAME swaps both tables; the legacy table is kept as {@value #LEGACY_TABLE}
+     *     and its triggers are dropped.</li>
+     * </ol>
+     * A migration that was interrupted is restarted from scratch. The migration is refused while
+     * the legacy table holds identifiers that are not UUIDs, because those accounts cannot be represented.
+     */
+    private void migrate(Connection conn, int chunkSize, Logger logger) throws SQLException {
+        logger.info("[MCEconomy] Migrating " + TABLE + " to the compact key layout...");
+        try (Statement stmt = conn.createStatement()) {
+            dropMigrationTriggers(stmt);
+            stmt.execute("DROP TABLE IF EXISTS " + MIGRATION_TABLE);
+            stmt.execute(tableSql(MIGRATION_TABLE));
+            for (Map.Entry<String, String> trigger : MIGRATION_TRIGGERS.entrySet()) {
+                stmt.execute(triggerSql(trigger.getValue(), trigger.getKey()));
+            }
+
+            // New non-UUID rows are rejected by the triggers from here on, so this check cannot go stale.
+            long invalid = countNonUuidKeys(conn);
+            if (invalid > 0) {
+                dropMigrationTriggers(stmt);
+                stmt.execute("DROP TABLE " + MIGRATION_TABLE);
+                throw new SQLException("Refusing to migrate " + TABLE + ": " + invalid + " accounts have identifiers that are not UUIDs");
+            }
+
+            stmt.execute("INSERT IGNORE INTO economy_account_types (type_name) SELECT DISTINCT l.account_type FROM " + TABLE + " l " +
+                         "WHERE NOT EXISTS (SELECT 1 FROM economy_account_types t WHERE t.type_name = l.account_type)");
+        }
+
+        String boundarySql = "SELECT account_uuid, account_type FROM " + TABLE + " WHERE (account_uuid, account_type) > (?, ?) " +
+                             "ORDER BY account_uuid, account_type LIMIT 1 OFFSET ?";
+        String copySql = "INSERT IGNORE INTO " + MIGRATION_TABLE + " (account_uuid, type_id, coin, copper, silver, gold) " +
+                         "SELECT UNHEX(REPLACE(l.account_uuid, '-', '')), t.type_id, l.coin, l.copper, l.silver, l.gold " +
+                         "FROM " + TABLE + " l JOIN economy_account_types t ON t.type_name = l.account_type " +
+                         "WHERE (l.account_uuid, l.account_type) > (?, ?)";
+        String lastUuid = "";
+        String lastType = "";
+        long copied = 0;
+        try (PreparedStatement boundary = conn.prepareStatement(boundarySql);
+             PreparedStatement chunk = conn.prepareStatement(copySql + " AND (l.account_uuid, l.account_type) <= (?, ?) LOCK IN SHARE MODE");
+             PreparedStatement tail = conn.prepareStatement(copySql + " LOCK IN SHARE MODE")) {
+            while (true) {
+                boundary.setString(1, lastUuid);
+                boundary.setString(2, lastType);
+                boundary.setInt(3, chunkSize - 1);
+                String upperUuid;
+                String upperType;
+                try (ResultSet rs = boundary.executeQuery()) {
+                    if (!rs.next()) break;
+                    upperUuid = rs.getString(1);
+                    upperType = rs.getString(2);
+                }
+                chunk.setString(1, lastUuid);
+                chunk.setString(2, lastType);
+                chunk.setString(3, upperUuid);
+                chunk.setString(4, upperType);
+                copied += chunk.executeUpdate();
+                lastUuid = upperUuid;
+                lastType = upperType;
+            }
+            tail.setString(1, lastUuid);
+            tail.setString(2, lastType);
+            copied += tail.executeUpdate();
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("RENAME TABLE " + TABLE + " TO " + LEGACY_TABLE + ", " + MIGRATION_TABLE + " TO " + TABLE);
+            dropMigrationTriggers(stmt);
+        }
+        logger.info("[MCEconomy] Migrated " + copied + " accounts to the compact key layout; the old table was kept as " + LEGACY_TABLE);
+    }
+
+    /**
+     * Drops the migration triggers, wherever the legacy table currently is.
+     */
+    private static void dropMigrationTriggers(Statement stmt) throws SQLException {
+        for (String trigger : MIGRATION_TRIGGERS.values()) {
+            stmt.execute("DROP TRIGGER IF EXISTS " + trigger);
+        }
+    }
+
+    /**
+     * Builds a trigger mirroring one kind of write on the legacy table into the migration table.
+     */
+    private static String triggerSql(String name, String event) {
+        String deleteOld = "DELETE FROM " + MIGRATION_TABLE + " WHERE account_uuid = UNHEX(REPLACE(OLD.account_uuid, '-', '')) " +
+                           "AND type_id = (SELECT type_id FROM economy_account_types WHERE type_name = OLD.account_type); ";
+        String upsertNew = "IF NEW.account_uuid NOT REGEXP " + UUID_REGEXP + " THEN " +
+                           "SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = '" + TABLE + " is migrating to compact keys, account identifiers must be UUIDs'; " +
+                           "END IF; " +
+                           "IF NOT EXISTS (SELECT 1 FROM economy_account_types WHERE type_name = NEW.account_type) THEN " +
+                           "INSERT IGNORE INTO economy_account_types (type_name) VALUES (NEW.account_type); " +
+                           "END IF; " +
+                           "INSERT INTO " + MIGRATION_TABLE + " (account_uuid, type_id, coin, copper, silver, gold) " +
+                           "VALUES (UNHEX(REPLACE(NEW.account_uuid, '-', '')), " +
+                           "(SELECT type_id FROM economy_account_types WHERE type_name = NEW.account_type), " +
+                           "NEW.coin, NEW.copper, NEW.silver, NEW.gold) ON DUPLICATE KEY UPDATE " +
+                           "coin = VALUES(coin), copper = VALUES(copper), silver = VALUES(silver), gold = VALUES(gold); ";
+        String body = switch (event) {
+            case "INSERT" -> upsertNew;
+            case "UPDATE" -> "IF NOT (OLD.account_uuid <=> NEW.account_uuid AND OLD.account_type <=> NEW.account_type) THEN " +
+                             deleteOld + "END IF; " + upsertNew;
+            default -> deleteOld;
+        };
+        return "CREATE TRIGGER " + name + " AFTER " + event + " ON " + TABLE + " FOR EACH ROW BEGIN " + body + "END";
+    }
+
+    /**
+     * Builds the CREATE TABLE statement of the configured layout.
+     */
+    private String tableSql(String table) {
+        if (!compact) {
+            return "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                   "account_uuid VARCHAR(36) NOT NULL, " +
+                   "account_type VARCHAR(32) NOT NULL, " +
+                   "coin BIGINT NOT NULL DEFAULT 0, " +
+                   "copper BIGINT NOT NULL DEFAULT 0, " +
+                   "silver BIGINT NOT NULL DEFAULT 0, " +
+                   "gold BIGINT NOT NULL DEFAULT 0, " +
+                   "PRIMARY KEY (account_uuid, account_type))";
+        }
+        return "CREATE TABLE IF NOT EXISTS " + table + " (" +
+               "account_uuid BINARY(16) NOT NULL, " +
+               "type_id SMALLINT UNSIGNED NOT NULL, " +
+               "coin BIGINT NOT NULL DEFAULT 0, " +
+               "copper BIGINT NOT NULL DEFAULT 0, " +
+               "silver BIGINT NOT NULL DEFAULT 0, " +
+               "gold BIGINT NOT NULL DEFAULT 0, " +
+               "PRIMARY KEY (account_uuid, type_id))";
+    }
+
+    /**
+     * Returns the cached id of an account type.
+     *
+     * @throws SQLException If the type was not {@link #resolve resolved} first.
+     */
+    private int typeId(String accountType) throws SQLException {
+        Integer cached = typeIds.get(accountType);
+        if (cached == null) throw new SQLException("Account type " + accountType + " was not resolved before binding");
+        return cached;
+    }
+
+    /**
+     * Registers an account type on an autocommit connection, independent of any caller transaction.
+     */
+    private void register(Connection conn, String accountType) throws SQLException {
+        Integer id = selectTypeId(conn, accountType);
+        if (id == null) {
+            try (PreparedStatement insert = conn.prepareStatement("INSERT IGNORE INTO economy_account_types (type_name) VALUES (?)")) {
+                insert.setString(1, accountType);
+                insert.executeUpdate();
+            }
+            id = selectTypeId(conn, accountType);
+            if (id == null) throw new SQLException("Unable to register account type " + accountType);
+        }
+        typeIds.put(accountType, id);
+        typeNames.put(id, accountType);
+    }
+
+    /**
+     * Looks up the id of a registered account type, or returns null if it is not registered.
+     */
+    private static Integer selectTypeId(Connection conn, String accountType) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement("SELECT type_id FROM economy_account_types WHERE type_name = ?")) {
+            select.setString(1, accountType);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Returns the cached name of an account type id. Rows are only read for requested keys, whose
+     * types were resolved first, or after {@link #loadTypes}, so a miss means the id is not registered.
+     */
+    private String typeName(int typeId) throws SQLException {
+        String cached = typeNames.get(typeId);
+        if (cached == null) throw new SQLException("Unknown account type id " + typeId);
+        return cached;
+    }
+
+    /**
+     * Converts a UUID string to its 16-byte big-endian form.
+     */
+    private static byte[] toBytes(String accountUuid) throws SQLException {
+        byte[] bytes = parseBytes(accountUuid);
+        if (bytes == null) throw new SQLException("Account identifier is not a UUID: " + accountUuid);
+        return bytes;
+    }
+
+    /**
+     * Converts a UUID string to its 16-byte big-endian form, or returns null if it is not a UUID.
+     */
+    private static byte[] parseBytes(String accountUuid) {
+        if (accountUuid == null || accountUuid.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(accountUuid);
+            return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package io.github.mcengine.mceconomy.common.database.mysql;
+
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.Plugin;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * MySQL implementation for MCEconomy that spreads accounts over several MySQL servers.
+ * <p>
+ * Every account lives on the shard chosen by a stable hash of its lower-cased {@code account_uuid}, so all account
+ * types of one UUID share a shard and every single-account operation touches exactly one server.
+ * Shards are configured as named sections under {@code db.mysql.shards}; their order defines the routing
+ * and must not change once balances are stored.
+ * </p>
+ * <p>
+ * A transfer between shards debits the sender and writes an outbox row in one transaction on the sender's
+ * shard, then credits the receiver together with an inbox row on the receiver's shard. The inbox makes the
+ * credit idempotent, so undelivered outbox rows are safely retried every
+ * {@code db.mysql.sharding.retry-interval-ms} and on startup; inbox rows are pruned after
+ * {@code db.mysql.sharding.inbox-retention-ms} once their transfer has left the sender's outbox.
+ * </p>
+ */
+public class MCEconomyMySQLSharded implements IMCEconomyDB, MCEconomyMySQLRetries {
+
+    /**
+     * A cross-shard transfer recorded in the sender shard's outbox.
+     *
+     * @param id           Unique transfer id.
+     * @param senderUuid   The UUID of the sender.
+     * @param senderType   The account type of the sender.
+     * @param receiverUuid The UUID of the receiver.
+     * @param receiverType The account type of the receiver.
+     * @param coinType     The currency type.
+     * @param amount       The amount transferred.
+     */
+    record Transfer(String id, String senderUuid, String senderType, String receiverUuid, String receiverType,
+                    CurrencyType coinType, int amount) {
+    }
+
+    /**
+     * Number of inbox markers checked against the outboxes per query.
+     */
+    private static final int PRUNE_BATCH_SIZE = 500;
+
+    private final Logger logger;
+
+    /**
+     * The shards in routing order.
+     */
+    private final MCEconomyMySQL[] shards;
+
+    /**
+     * How long inbox markers are kept after a credit, long enough to outlast any concurrent retry.
+     */
+    private final long inboxRetentionMillis;
+
+    /**
+     * Retries undelivered cross-shard transfers.
+     */
+    private final ScheduledExecutorService deliverer;
+
+    /**
+     * Number of transfers that spanned two shards.
+     */
+    private final AtomicLong crossShardTransfers = new AtomicLong();
+
+    /**
+     * Number of cross-shard credits that failed and were left for a retry.
+     */
+    private final AtomicLong deferredDeliveries = new AtomicLong();
+
+    /**
+     * Constructs a new sharded database with one connection pool per section of {@code db.mysql.shards}.
+     *
+     * @param plugin The Bukkit/Spigot plugin instance.
+     * @throws IllegalStateException If a shard's account table cannot be created or its key layout cannot be read.
+     * @throws RuntimeException      If a shard's connection pool cannot be started.
+     */
+    public MCEconomyMySQLSharded(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("db.mysql.shards");
+        List<MCEconomyMySQL> configured = new ArrayList<>();
+        if (section != null) {
+            try {
+                for (String name : section.getKeys(false)) {
+                    ConfigurationSection connection = section.getConfigurationSection(name);
+                    if (connection != null) configured.add(new MCEconomyMySQL(plugin, connection));
+                }
+            } catch (RuntimeException e) {
+                // e.g. a PoolInitializationException from an unreachable shard; earlier shards hold pools and threads
+                configured.forEach(MCEconomyMySQL::close);
+                throw e;
+            }
+        }
+        if (configured.isEmpty()) {
+            logger.warning("[MCEconomy] db.mysql.shards has no shards, using db.mysql as the only shard");
+            configured.add(new MCEconomyMySQL(plugin));
+        }
+        this.shards = configured.toArray(new MCEconomyMySQL[0]);
+
+        for (MCEconomyMySQL shard : shards) {
+            try {
+                shard.createTransferTables();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        this.inboxRetentionMillis = Math.max(60000L, plugin.getConfig().getLong("db.mysql.sharding.inbox-retention-ms", 86400000L));
+        deliverPending();
+
+        long retryMillis = Math.max(100L, plugin.getConfig().getLong("db.mysql.sharding.retry-interval-ms", 5000L));
+        this.deliverer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "MCEconomy-ShardTransfers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deliverer.scheduleWithFixedDelay(this::deliverPending, retryMillis, retryMillis, TimeUnit.MILLISECONDS);
+        logger.info("[MCEconomy] Using " + shards.length + " MySQL shard(s)");
+    }
+
+    /**
+     * Returns the shard index of an account; depends only on the UUID and the number of shards.
+     * The UUID is hashed in lower case, since the compact key layout treats UUIDs case-insensitively;
+     * lower-case UUIDs, as Bukkit produces them, keep the shard they always had.
+     */
+    private int shardIndex(String accountUuid) {
+        int h = accountUuid.toLowerCase(Locale.ROOT).hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return Math.floorMod(h, shards.length);
+    }
+
+    private MCEconomyMySQL shard(String accountUuid) {
+        return shards[shardIndex(accountUuid)];
+    }
+
+    @Override
+    public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+        return shard(accountUuid).getCoin(accountUuid, accountType, coinType);
+    }
+
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        return shard(accountUuid).getAllCoins(accountUuid, accountType);
+    }
+
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        return shard(accountUuid).loadAllCoins(accountUuid, accountType);
+    }
+
+    @Override
+    public AccountBalance readAllCoins(String accountUuid, String accountType) {
+        return shard(accountUuid).readAllCoins(accountUuid, accountType);
+    }
+
+    /**
+     * Groups the accounts by shard and runs one batched lookup per shard.
+     */
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<Integer, List<AccountKey>> byShard = new HashMap<>();
+        for (AccountKey key : accounts) {
+            byShard.computeIfAbsent(shardIndex(key.getAccountUuid()), i -> new ArrayList<>()).add(key);
+        }
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        for (Map.Entry<Integer, List<AccountKey>> entry : byShard.entrySet()) {
+            result.putAll(shards[entry.getKey()].getCoins(entry.getValue(), coinType));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<Integer, List<AccountKey>> byShard = new HashMap<>();
+        for (AccountKey key : accounts) {
+            byShard.computeIfAbsent(shardIndex(key.getAccountUuid()), i -> new ArrayList<>()).add(key);
+        }
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        for (Map.Entry<Integer, List<AccountKey>> entry : byShard.entrySet()) {
+            result.putAll(shards[entry.getKey()].loadCoins(entry.getValue(), coinType));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<AccountKey, Integer> readCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        Map<Integer, List<AccountKey>> byShard = new HashMap<>();
+        for (AccountKey key : accounts) {
+            byShard.computeIfAbsent(shardIndex(key.getAccountUuid()), i -> new ArrayList<>()).add(key);
+        }
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, accounts.size() * 2));
+        for (Map.Entry<Integer, List<AccountKey>> entry : byShard.entrySet()) {
+            result.putAll(shards[entry.getKey()].readCoins(entry.getValue(), coinType));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        return shard(accountUuid).setCoin(accountUuid, accountType, coinType, amount);
+    }
+
+    @Override
+    public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        return shard(accountUuid).addCoin(accountUuid, accountType, coinType, amount);
+    }
+
+    @Override
+    public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        return shard(accountUuid).minusCoin(accountUuid, accountType, coinType, amount);
+    }
+
+    /**
+     * Transfers within one shard use that shard's transaction. Transfers between shards are debited
+     * and recorded in the sender shard's outbox first; once that commits the transfer succeeds, and the
+     * credit is delivered now or, if the receiver's shard is unavailable, by a later retry.
+     */
+    @Override
+    public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return false;
+        MCEconomyMySQL from = shard(senderUuid);
+        MCEconomyMySQL to = shard(receiverUuid);
+        if (from == to) return from.sendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount);
+
+        Transfer transfer = new Transfer(UUID.randomUUID().toString(), senderUuid, senderType, receiverUuid, receiverType, coinType, amount);
+        if (!from.debitToOutbox(transfer)) return false;
+        crossShardTransfers.incrementAndGet();
+        deliver(from, transfer);
+        return true;
+    }
+
+    /**
+     * Credits the receiver of a transfer and clears it from the outbox.
+     * The inbox marker stays so a concurrent retry of the same transfer is ignored.
+     */
+    private void deliver(MCEconomyMySQL from, Transfer transfer) {
+        MCEconomyMySQL to = shard(transfer.receiverUuid());
+        if (!to.creditFromInbox(transfer)) {
+            deferredDeliveries.incrementAndGet();
+            logger.warning("[MCEconomy] Deferred cross-shard transfer " + transfer.id() + ", will retry");
+            return;
+        }
+        from.deleteOutbox(transfer.id());
+    }
+
+    /**
+     * Delivers every transfer still waiting in an outbox and prunes expired inbox markers.
+     * Errors are reported and retried on the next run, so they never cancel the scheduled retries.
+     */
+    private void deliverPending() {
+        try {
+            for (MCEconomyMySQL shard : shards) {
+                for (Transfer transfer : shard.pendingTransfers()) deliver(shard, transfer);
+            }
+            pruneInboxes(System.currentTimeMillis() - inboxRetentionMillis);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Removes inbox markers applied before the cutoff whose transfer no shard holds in its outbox any more.
+     * Age alone is not enough: if the sender's shard failed to delete a delivered transfer and stays down past
+     * the retention, its outbox row is retried once it returns and must still find the marker.
+     * A shard that cannot be queried keeps every marker it might still need.
+     */
+    private void pruneInboxes(long appliedBefore) {
+        for (MCEconomyMySQL shard : shards) {
+            try {
+                List<String> expired = shard.expiredInbox(appliedBefore);
+                for (int from = 0; from < expired.size(); from += PRUNE_BATCH_SIZE) {
+                    List<String> batch = new ArrayList<>(expired.subList(from, Math.min(from + PRUNE_BATCH_SIZE, expired.size())));
+                    for (MCEconomyMySQL sender : shards) {
+                        if (sender != shard) batch.removeAll(sender.outboxContaining(batch));
+                    }
+                    shard.deleteInbox(batch);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public boolean ensureAccountExist(String accountUuid, String accountType) {
+        return shard(accountUuid).ensureAccountExist(accountUuid, accountType);
+    }
+
+    /**
+     * Writes one batch per shard. Each batch is atomic on its shard, but the batches are not atomic together.
+     */
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        Map<Integer, Map<AccountKey, AccountBalance>> byShard = new HashMap<>();
+        for (Map.Entry<AccountKey, AccountBalance> entry : balances.entrySet()) {
+            byShard.computeIfAbsent(shardIndex(entry.getKey().getAccountUuid()), i -> new HashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        boolean success = true;
+        for (Map.Entry<Integer, Map<AccountKey, AccountBalance>> entry : byShard.entrySet()) {
+            success &= shards[entry.getKey()].setBalances(entry.getValue());
+        }
+        return success;
+    }
+
+    /**
+     * Credits one batch per shard. Each batch is atomic on its shard, but the batches are not atomic together.
+     */
+    @Override
+    public boolean addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        for (int amount : amounts.values()) {
+            if (amount <= 0) return false;
+        }
+        Map<Integer, Map<AccountKey, Integer>> byShard = new HashMap<>();
+        for (Map.Entry<AccountKey, Integer> entry : amounts.entrySet()) {
+            byShard.computeIfAbsent(shardIndex(entry.getKey().getAccountUuid()), i -> new HashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        boolean success = true;
+        for (Map.Entry<Integer, Map<AccountKey, Integer>> entry : byShard.entrySet()) {
+            success &= shards[entry.getKey()].addCoinBulk(entry.getValue(), coinType);
+        }
+        return success;
+    }
+
+    /**
+     * Streams the accounts of every shard in turn.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        for (MCEconomyMySQL shard : shards) {
+            if (!shard.forEachAccount(action)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of transaction attempts retried after a deadlock or lock wait timeout, over all shards.
+     */
+    @Override
+    public long getTransferRetryCount() {
+        long count = 0;
+        for (MCEconomyMySQL shard : shards) count += shard.getTransferRetryCount();
+        return count;
+    }
+
+    /**
+     * @return The number of transactions that exhausted every retry, over all shards.
+     */
+    @Override
+    public long getTransferRetriesExhaustedCount() {
+        long count = 0;
+        for (MCEconomyMySQL shard : shards) count += shard.getTransferRetriesExhaustedCount();
+        return count;
+    }
+
+    /**
+     * @return The number of transfers that spanned two shards.
+     */
+    public long getCrossShardTransferCount() {
+        return crossShardTransfers.get();
+    }
+
+    /**
+     * @return The number of cross-shard credits that failed and were left for a retry.
+     */
+    public long getDeferredDeliveryCount() {
+        return deferredDeliveries.get();
+    }
+
+    /**
+     * Stops the retry thread, makes a last delivery attempt and closes every shard.
+     */
+    @Override
+    public void close() {
+        deliverer.shutdown();
+        try {
+            deliverer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deliverPending();
+        for (MCEconomyMySQL shard : shards) shard.close();
+    }
+}
@@ -1,26 +1,123 @@
 package io.github.mcengine.mceconomy.common.database.sqlite;
 
+import io.github.mcengine.mceconomy.api.account.AccountBalance;
+import io.github.mcengine.mceconomy.api.account.AccountKey;
+import io.github.mcengine.mceconomy.api.account.AccountType;
+import io.github.mcengine.mceconomy.api.database.IMCEconomyAsyncDB;
 import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.database.MCEconomyDatabaseException;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import io.github.mcengine.mceconomy.common.database.sqlite.MCEconomySQLiteStatements.Operation;
 import org.bukkit.plugin.Plugin;
 import java.io.File;
 import java.sql.*;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 /**
  * SQLite implementation for MCEconomy.
+ * <p>
+ * All writes are queued to a single writer thread that commits them in groups on the writer
+ * connection (see {@link MCEconomySQLiteWriter}). In WAL journal mode,
+ * balance reads are served by a small pool of read-only connections instead, so lookups run in
+ * parallel and are never blocked behind a slow write.
+ * </p>
+ * <p>
+ * The asynchronous methods complete writes on the backend's callback threads, never on the writer
+ * thread, and run reads on the backend's own reader threads, one per read connection.
+ * </p>
  */
-public class MCEconomySQLite implements IMCEconomyDB {
+public class MCEconomySQLite implements IMCEconomyDB, IMCEconomyAsyncDB {
     /**
-     * The active SQL connection instance.
+     * Accepted values for the journal_mode PRAGMA.
+     */
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+
+    /**
+     * Accepted values for the synchronous PRAGMA.
+     */
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+
+    /**
+     * The writer SQL connection instance.
      */
     private Connection conn;
 
     /**
-     * Lock object for thread synchronization.
+     * Reusable statements of the writer connection.
+     */
+    private MCEconomySQLiteStatements writerStatements;
+
+    /**
+     * Lock object for thread synchronization of the writer connection.
      */
     private final Object lock = new Object();
 
+    /**
+     * Single writer thread committing queued writes in groups.
+     */
+    private MCEconomySQLiteWriter writer;
+
+    /**
+     * Idle read-only connections with their statements; only populated in WAL mode.
+     */
+    private final BlockingQueue<MCEconomySQLiteStatements> readers;
+
+    /**
+     * Every read-only connection that was opened, kept for closing.
+     */
+    private final List<MCEconomySQLiteStatements> openReaders = new ArrayList<>();
+
+    /**
+     * Threads running asynchronous reads, one per read connection (at least one).
+     */
+    private final ExecutorService readExecutor;
+
+    /**
+     * Threads completing write futures, so callers' dependent stages never run on the writer thread.
+     */
+    private final ExecutorService callbackExecutor;
+
+    /**
+     * Time reads spent holding {@link #lock} on the writer connection, in nanoseconds.
+     */
+    private final LongAdder readLockHoldNanos = new LongAdder();
+
+    /**
+     * Configured journal_mode PRAGMA value.
+     */
+    private final String journalMode;
+
+    /**
+     * Configured synchronous PRAGMA value.
+     */
+    private final String synchronous;
+
+    /**
+     * Configured mmap_size PRAGMA value in bytes.
+     */
+    private final long mmapSize;
+
+    /**
+     * Configured cache_size PRAGMA value (negative values are KiB, positive values are pages).
+     */
+    private final long cacheSize;
+
     /**
      * Constructs a new SQLite database handler.
      * Creates the plugin data folder and database file if they do not exist.
@@ -38,15 +135,137 @@ public class MCEconomySQLite implements IMCEconomyDB {
         File parentDir = dataFolder.getParentFile();
         if (parentDir != null && !parentDir.exists()) parentDir.mkdirs();
 
+        this.journalMode = pragmaChoice(plugin, "db.sqlite.journal-mode", "WAL", JOURNAL_MODES);
+        this.synchronous = pragmaChoice(plugin, "db.sqlite.synchronous", "FULL", SYNCHRONOUS_MODES);
+        this.mmapSize = Math.max(0L, plugin.getConfig().getLong("db.sqlite.mmap-size", 268435456L));
+        this.cacheSize = plugin.getConfig().getLong("db.sqlite.cache-size", -16000L);
+        int readPoolSize = "WAL".equals(journalMode) ? Math.max(0, plugin.getConfig().getInt("db.sqlite.read-pool-size", 4)) : 0;
+        this.readers = new ArrayBlockingQueue<>(Math.max(1, readPoolSize));
+        AtomicInteger readerThreads = new AtomicInteger();
+        this.readExecutor = Executors.newFixedThreadPool(Math.max(1, readPoolSize), task -> {
+            Thread thread = new Thread(task, "MCEconomy-SQLiteReader-" + readerThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger callbackThreads = new AtomicInteger();
+        this.callbackExecutor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "MCEconomy-SQLiteCallback-" + callbackThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        String url = "jdbc:sqlite:" + dataFolder.getAbsolutePath();
         try {
             Class.forName("org.sqlite.JDBC");
-            this.conn = DriverManager.getConnection("jdbc:sqlite:" + dataFolder.getAbsolutePath());
+            this.conn = DriverManager.getConnection(url);
+            applyPragmas(conn, false);
             createTable();
+            this.writerStatements = new MCEconomySQLiteStatements(conn);
+            this.writer = new MCEconomySQLiteWriter(writerStatements, lock,
+                    plugin.getConfig().getInt("db.sqlite.group-commit.max-batch", 256),
+                    plugin.getConfig().getLong("db.sqlite.group-commit.max-latency-ms", 1L),
+                    callbackExecutor);
+
+            for (int i = 0; i < readPoolSize; i++) {
+                Connection reader = DriverManager.getConnection(url);
+                applyPragmas(reader, true);
+                MCEconomySQLiteStatements statements = new MCEconomySQLiteStatements(reader);
+                openReaders.add(statements);
+                readers.add(statements);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Reads an enumerated PRAGMA value from the configuration, falling back to the default if it is not allowed.
+     */
+    private String pragmaChoice(Plugin plugin, String configPath, String defaultValue, Set<String> allowed) {
+        String value = plugin.getConfig().getString(configPath, defaultValue);
+        value = value == null ? defaultValue : value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(value)) {
+            plugin.getLogger().warning("[MCEconomy] Invalid value '" + value + "' for " + configPath + ", using " + defaultValue);
+            return defaultValue;
+        }
+        return value;
+    }
+
+    /**
+     * Applies the configured PRAGMAs to a freshly opened connection.
+     *
+     * @param connection The connection to configure.
+     * @param readOnly   Whether the connection should reject writes.
+     * @throws SQLException If a PRAGMA fails.
+     */
+    private void applyPragmas(Connection connection, boolean readOnly) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = 5000");
+            if (!readOnly) stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            if (readOnly) stmt.execute("PRAGMA query_only = ON");
+        }
+    }
+
+    /**
+     * A read-only database operation.
+     *
+     * @param <T> The result type.
+     */
+    @FunctionalInterface
+    private interface ReadOperation<T> {
+        /**
+         * @param statements The statements of the connection to query.
+         * @return The operation result.
+         * @throws SQLException If the query fails.
+         */
+        T execute(MCEconomySQLiteStatements statements) throws SQLException;
+    }
+
+    /**
+     * Queues a write on the single writer thread.
+     *
+     * @param operation The statements to run on the writer connection.
+     * @return A future completed by the writer thread once the write's group has been committed;
+     *         false if the operation failed or the group could not be committed.
+     */
+    private CompletableFuture<Boolean> submit(MCEconomySQLiteWriter.WriteOperation operation) {
+        if (writer == null) return CompletableFuture.completedFuture(false);
+        return writer.submit(operation);
+    }
+
+    /**
+     * Runs a read-only operation on a pooled reader connection, or on the writer connection
+     * under the lock when no read pool is configured.
+     */
+    private <T> T read(ReadOperation<T> operation) throws SQLException {
+        if (openReaders.isEmpty()) {
+            synchronized (lock) {
+                long lockedAt = System.nanoTime();
+                try {
+                    return operation.execute(writerStatements);
+                } finally {
+                    readLockHoldNanos.add(System.nanoTime() - lockedAt);
+                }
+            }
+        }
+
+        MCEconomySQLiteStatements reader;
+        try {
+            reader = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+        try {
+            return operation.execute(reader);
+        } finally {
+            readers.offer(reader);
+        }
+    }
+
     /**
      * Resolve configuration by preferring environment variables then falling back to plugin config.
      */
@@ -106,48 +325,205 @@ public class MCEconomySQLite implements IMCEconomyDB {
      */
     @Override
     public boolean ensureAccountExist(String accountUuid, String accountType) {
-        String sql = "INSERT OR IGNORE INTO economy_accounts (account_uuid, account_type) VALUES (?, ?)";
-        synchronized (lock) {
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, accountUuid);
-                pstmt.setString(2, accountType);
-                pstmt.executeUpdate();
-                return true;
-            } catch (SQLException e) {
-                e.printStackTrace();
-                return false;
-            }
-        }
+        return submitEnsureAccountExist(accountUuid, accountType).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> ensureAccountExistAsync(String accountUuid, AccountType accountType) {
+        return submitEnsureAccountExist(accountUuid, accountType.getName());
+    }
+
+    private CompletableFuture<Boolean> submitEnsureAccountExist(String accountUuid, String accountType) {
+        return submit(statements -> {
+            PreparedStatement pstmt = statements.get(Operation.ENSURE_ACCOUNT);
+            pstmt.setString(1, accountUuid);
+            pstmt.setString(2, accountType);
+            pstmt.executeUpdate();
+            return true;
+        });
     }
 
     /**
      * Retrieves the balance of a specific coin type for an account.
+     * Missing accounts are reported as 0 without creating a row.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
      * @param coinType    The currency type.
-     * @return The amount found in the database, or 0 if an error occurs.
+     * @return The amount found in the database, or 0 if the account is missing or an error occurs.
      */
     @Override
     public int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
-        synchronized (lock) {
-            String col = columnName(coinType);
-            ensureAccountExist(accountUuid, accountType);
-            String sql = "SELECT " + col + " FROM economy_accounts WHERE account_uuid = ? AND account_type = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            return read(statements -> {
+                PreparedStatement pstmt = statements.get(Operation.GET_COIN, coinType);
                 pstmt.setString(1, accountUuid);
                 pstmt.setString(2, accountType);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) return rs.getInt(1);
-            } catch (SQLException e) {
-                e.printStackTrace();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Retrieves the balance of every coin type for an account with a single SELECT.
+     *
+     * @param accountUuid The UUID of the account.
+     * @param accountType The type of account.
+     * @return The balances found in the database, or an empty balance if the account is missing or an error occurs.
+     */
+    @Override
+    public AccountBalance getAllCoins(String accountUuid, String accountType) {
+        try {
+            return queryAllCoins(accountUuid, accountType);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return AccountBalance.EMPTY;
+        }
+    }
+
+    /**
+     * Reads every currency of an account, reporting errors instead of an empty balance.
+     */
+    @Override
+    public AccountBalance loadAllCoins(String accountUuid, String accountType) {
+        try {
+            return queryAllCoins(accountUuid, accountType);
+        } catch (SQLException e) {
+            throw new MCEconomyDatabaseException("Failed to load balances of " + accountType + " " + accountUuid, e);
+        }
+    }
+
+    private AccountBalance queryAllCoins(String accountUuid, String accountType) throws SQLException {
+        return read(statements -> {
+            PreparedStatement pstmt = statements.get(Operation.GET_ALL_COINS);
+            pstmt.setString(1, accountUuid);
+            pstmt.setString(2, accountType);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return new AccountBalance(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
+            }
+            return AccountBalance.EMPTY;
+        });
+    }
+
+    /**
+     * Retrieves the balance of one coin type for many accounts.
+     * Accounts are looked up in chunks of {@value MCEconomySQLiteStatements#LOOKUP_CHUNK_SIZE} using a row-value IN list,
+     * all on a single connection.
+     *
+     * @param accounts The accounts to look up.
+     * @param coinType The currency type.
+     * @return A map containing every requested account; missing accounts or errors map to 0.
+     */
+    @Override
+    public Map<AccountKey, Integer> getCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        List<AccountKey> keys = new ArrayList<>(new LinkedHashSet<>(accounts));
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, keys.size() * 2));
+        for (AccountKey key : keys) result.put(key, 0);
+        if (keys.isEmpty()) return result;
+
+        try {
+            queryCoins(keys, coinType, result);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    /**
+     * Reads one currency of many accounts, reporting errors instead of zeros.
+     */
+    @Override
+    public Map<AccountKey, Integer> loadCoins(Collection<AccountKey> accounts, CurrencyType coinType) {
+        List<AccountKey> keys = new ArrayList<>(new LinkedHashSet<>(accounts));
+        Map<AccountKey, Integer> result = new HashMap<>(Math.max(16, keys.size() * 2));
+        for (AccountKey key : keys) result.put(key, 0);
+        if (keys.isEmpty()) return result;
+
+        try {
+            queryCoins(keys, coinType, result);
+        } catch (SQLException e) {
+            throw new MCEconomyDatabaseException("Failed to load " + coinType + " balances of " + keys.size() + " accounts", e);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up one currency of distinct accounts in chunks and stores the balances found in the result.
+     */
+    private void queryCoins(List<AccountKey> keys, CurrencyType coinType, Map<AccountKey, Integer> result) throws SQLException {
+        int chunkSize = MCEconomySQLiteStatements.LOOKUP_CHUNK_SIZE;
+        read(statements -> {
+            for (int from = 0; from < keys.size(); from += chunkSize) {
+                List<AccountKey> chunk = keys.subList(from, Math.min(from + chunkSize, keys.size()));
+                PreparedStatement pstmt = statements.lookup(coinType, chunk.size());
+                try {
+                    int index = 1;
+                    for (AccountKey key : chunk) {
+                        pstmt.setString(index++, key.getAccountUuid());
+                        pstmt.setString(index++, key.getAccountType());
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            result.put(AccountKey.of(rs.getString(1), rs.getString(2)), rs.getInt(3));
+                        }
+                    }
+                } finally {
+                    if (!statements.isCached(pstmt)) pstmt.close();
+                }
             }
+            return result;
+        });
+    }
+
+    /**
+     * Steps through the account table row by row on a reader connection.
+     * Without a read pool the scan holds the writer connection's lock until it ends.
+     *
+     * @param action Receives each account and its balances.
+     * @return true if every account was visited, false on error.
+     */
+    @Override
+    public boolean forEachAccount(BiConsumer<AccountKey, AccountBalance> action) {
+        try {
+            return read(statements -> {
+                try (Statement stmt = statements.connection().createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT account_uuid, account_type, coin, copper, silver, gold FROM economy_accounts")) {
+                    while (rs.next()) {
+                        action.accept(AccountKey.of(rs.getString(1), rs.getString(2)),
+                                new AccountBalance(rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6)));
+                    }
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
         }
-        return 0;
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType) {
+        return CompletableFuture.supplyAsync(() -> getCoin(accountUuid, accountType.getName(), coinType), readExecutor);
+    }
+
+    @Override
+    public CompletableFuture<AccountBalance> getAllCoinsAsync(String accountUuid, AccountType accountType) {
+        return CompletableFuture.supplyAsync(() -> getAllCoins(accountUuid, accountType.getName()), readExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Map<AccountKey, Integer>> getCoinsAsync(Collection<AccountKey> accounts, CurrencyType coinType) {
+        return CompletableFuture.supplyAsync(() -> getCoins(accounts, coinType), readExecutor);
     }
 
     /**
      * Sets the balance of a specific coin type for an account to a specific amount.
+     * Uses a single INSERT ... ON CONFLICT DO UPDATE so missing accounts are created in the same statement.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
@@ -157,26 +533,29 @@ public class MCEconomySQLite implements IMCEconomyDB {
      */
     @Override
     public boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
-        synchronized (lock) {
-            if (amount < 0) return false;
-            String col = columnName(coinType);
-            ensureAccountExist(accountUuid, accountType);
-            String sql = "UPDATE economy_accounts SET " + col + " = ? WHERE account_uuid = ? AND account_type = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, amount);
-                pstmt.setString(2, accountUuid);
-                pstmt.setString(3, accountType);
-                pstmt.executeUpdate();
-                return true;
-            } catch (SQLException e) {
-                e.printStackTrace();
-                return false;
-            }
-        }
+        return submitSetCoin(accountUuid, accountType, coinType, amount).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return submitSetCoin(accountUuid, accountType.getName(), coinType, amount);
+    }
+
+    private CompletableFuture<Boolean> submitSetCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount < 0) return CompletableFuture.completedFuture(false);
+        return submit(statements -> {
+            PreparedStatement pstmt = statements.get(Operation.SET_COIN, coinType);
+            pstmt.setString(1, accountUuid);
+            pstmt.setString(2, accountType);
+            pstmt.setInt(3, amount);
+            pstmt.executeUpdate();
+            return true;
+        });
     }
 
     /**
      * Adds an amount to the account's current balance for a specific coin type.
+     * Uses a single INSERT ... ON CONFLICT DO UPDATE so missing accounts are created in the same statement.
      *
      * @param accountUuid The UUID of the account.
      * @param accountType The type of account.
@@ -186,11 +565,24 @@ public class MCEconomySQLite implements IMCEconomyDB {
      */
     @Override
     public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
-        synchronized (lock) {
-            if (amount <= 0) return false;
-            int newAmount = getCoin(accountUuid, accountType, coinType) + amount;
-            return setCoin(accountUuid, accountType, coinType, newAmount);
-        }
+        return submitAddCoin(accountUuid, accountType, coinType, amount).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return submitAddCoin(accountUuid, accountType.getName(), coinType, amount);
+    }
+
+    private CompletableFuture<Boolean> submitAddCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return CompletableFuture.completedFuture(false);
+        return submit(statements -> {
+            PreparedStatement pstmt = statements.get(Operation.ADD_COIN, coinType);
+            pstmt.setString(1, accountUuid);
+            pstmt.setString(2, accountType);
+            pstmt.setInt(3, amount);
+            pstmt.executeUpdate();
+            return true;
+        });
     }
 
     /**
@@ -205,26 +597,22 @@ public class MCEconomySQLite implements IMCEconomyDB {
      */
     @Override
     public boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
-        synchronized (lock) {
-            if (amount <= 0) return false;
-            String col = columnName(coinType);
-            String sql = "UPDATE economy_accounts SET " + col + " = " + col + " - ? " +
-                         "WHERE account_uuid = ? AND account_type = ? AND " + col + " >= ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, amount);
-                pstmt.setString(2, accountUuid);
-                pstmt.setString(3, accountType);
-                pstmt.setInt(4, amount);
-                return pstmt.executeUpdate() > 0;
-            } catch (SQLException e) {
-                e.printStackTrace();
-                return false;
-            }
-        }
+        return submitMinusCoin(accountUuid, accountType, coinType, amount).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> minusCoinAsync(String accountUuid, AccountType accountType, CurrencyType coinType, int amount) {
+        return submitMinusCoin(accountUuid, accountType.getName(), coinType, amount);
+    }
+
+    private CompletableFuture<Boolean> submitMinusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return CompletableFuture.completedFuture(false);
+        return submit(statements -> withdraw(statements, accountUuid, accountType, coinType, amount));
     }
 
     /**
      * Transfers an amount of a specific coin type from one account to another.
+     * Both statements run inside the writer's savepoint, so a failed deposit also undoes the withdrawal.
      *
      * @param senderUuid   The UUID of the sender.
      * @param senderType   The account type of the sender.
@@ -236,71 +624,163 @@ public class MCEconomySQLite implements IMCEconomyDB {
      */
     @Override
     public boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
-        synchronized (lock) {
-            if (amount <= 0) return false;
-            String col = columnName(coinType);
-            boolean prevAutoCommit = true;
+        return submitSendCoin(senderUuid, senderType, receiverUuid, receiverType, coinType, amount).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendCoinAsync(String senderUuid, AccountType senderType, String receiverUuid, AccountType receiverType, CurrencyType coinType, int amount) {
+        return submitSendCoin(senderUuid, senderType.getName(), receiverUuid, receiverType.getName(), coinType, amount);
+    }
+
+    private CompletableFuture<Boolean> submitSendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType, CurrencyType coinType, int amount) {
+        if (amount <= 0) return CompletableFuture.completedFuture(false);
+        return submit(statements -> {
+            // A missing sender has no funds, so the guarded withdraw alone rejects it.
+            if (!withdraw(statements, senderUuid, senderType, coinType, amount)) return false;
+
+            PreparedStatement deposit = statements.get(Operation.ADD_COIN, coinType);
+            deposit.setString(1, receiverUuid);
+            deposit.setString(2, receiverType);
+            deposit.setInt(3, amount);
+            deposit.executeUpdate();
+            return true;
+        });
+    }
+
+    /**
+     * Runs the guarded withdraw statement on the writer connection.
+     */
+    private static boolean withdraw(MCEconomySQLiteStatements statements, String accountUuid, String accountType,
+                                    CurrencyType coinType, int amount) throws SQLException {
+        PreparedStatement pstmt = statements.get(Operation.MINUS_COIN, coinType);
+        pstmt.setInt(1, amount);
+        pstmt.setString(2, accountUuid);
+        pstmt.setString(3, accountType);
+        pstmt.setInt(4, amount);
+        return pstmt.executeUpdate() > 0;
+    }
+
+    /**
+     * Writes the complete balance of several accounts as a single JDBC batch inside one transaction.
+     * Uses INSERT ... ON CONFLICT DO UPDATE so missing accounts are created in the same statement.
+     *
+     * @param balances The balances to store, keyed by account.
+     * @return true if the batch was committed, false on error.
+     */
+    @Override
+    public boolean setBalances(Map<AccountKey, AccountBalance> balances) {
+        return setBalancesAsync(balances).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setBalancesAsync(Map<AccountKey, AccountBalance> balances) {
+        if (balances.isEmpty()) return CompletableFuture.completedFuture(true);
+        return submit(statements -> {
+            PreparedStatement pstmt = statements.get(Operation.SET_BALANCES);
             try {
-                prevAutoCommit = conn.getAutoCommit();
-                conn.setAutoCommit(false);
-
-                ensureAccountExist(senderUuid, senderType);
-                ensureAccountExist(receiverUuid, receiverType);
-
-                String withdrawSql = "UPDATE economy_accounts SET " + col + " = " + col + " - ? " +
-                                     "WHERE account_uuid = ? AND account_type = ? AND " + col + " >= ?";
-                try (PreparedStatement withdraw = conn.prepareStatement(withdrawSql)) {
-                    withdraw.setInt(1, amount);
-                    withdraw.setString(2, senderUuid);
-                    withdraw.setString(3, senderType);
-                    withdraw.setInt(4, amount);
-                    if (withdraw.executeUpdate() == 0) {
-                        conn.rollback();
-                        conn.setAutoCommit(prevAutoCommit);
-                        return false;
-                    }
+                for (Map.Entry<AccountKey, AccountBalance> entry : balances.entrySet()) {
+                    AccountBalance balance = entry.getValue();
+                    pstmt.setString(1, entry.getKey().getAccountUuid());
+                    pstmt.setString(2, entry.getKey().getAccountType());
+                    pstmt.setInt(3, balance.getCoin());
+                    pstmt.setInt(4, balance.getCopper());
+                    pstmt.setInt(5, balance.getSilver());
+                    pstmt.setInt(6, balance.getGold());
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
+            } finally {
+                pstmt.clearBatch();
+            }
+            return true;
+        });
+    }
 
-                String depositSql = "UPDATE economy_accounts SET " + col + " = " + col + " + ? WHERE account_uuid = ? AND account_type = ?";
-                try (PreparedStatement deposit = conn.prepareStatement(depositSql)) {
-                    deposit.setInt(1, amount);
-                    deposit.setString(2, receiverUuid);
-                    deposit.setString(3, receiverType);
-                    deposit.executeUpdate();
-                }
+    /**
+     * Adds an amount of one coin type to several accounts as a single JDBC batch inside the writer's savepoint,
+     * so either every account is credited or none is.
+     *
+     * @param amounts  The amount to add to each account.
+     * @param coinType The currency type.
+     * @return true if the batch was committed, false if an amount was not positive or on error.
+     */
+    @Override
+    public boolean addCoinBulk(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        return addCoinBulkAsync(amounts, coinType).join();
+    }
 
-                conn.commit();
-                conn.setAutoCommit(prevAutoCommit);
-                return true;
-            } catch (SQLException e) {
-                try { conn.rollback(); } catch (SQLException ignored) {}
-                try { conn.setAutoCommit(prevAutoCommit); } catch (SQLException ignored) {}
-                e.printStackTrace();
-                return false;
-            }
+    @Override
+    public CompletableFuture<Boolean> addCoinBulkAsync(Map<AccountKey, Integer> amounts, CurrencyType coinType) {
+        for (int amount : amounts.values()) {
+            if (amount <= 0) return CompletableFuture.completedFuture(false);
         }
+        if (amounts.isEmpty()) return CompletableFuture.completedFuture(true);
+        return submit(statements -> {
+            PreparedStatement pstmt = statements.get(Operation.ADD_COIN, coinType);
+            try {
+                for (Map.Entry<AccountKey, Integer> entry : amounts.entrySet()) {
+                    pstmt.setString(1, entry.getKey().getAccountUuid());
+                    pstmt.setString(2, entry.getKey().getAccountType());
+                    pstmt.setInt(3, entry.getValue());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            } finally {
+                pstmt.clearBatch();
+            }
+            return true;
+        });
     }
 
     /**
-     * Closes the SQLite connection and releases the file lock.
+     * Reports how long write groups have held the writer connection's lock so far.
+     * Divide by {@link #getWriteCount()} to get the average critical section per write.
+     *
+     * @return Lock hold time in nanoseconds.
+     */
+    public long getWriteLockHoldNanos() {
+        return writer == null ? 0L : writer.getLockHoldNanos();
+    }
+
+    /**
+     * @return Time reads spent holding the writer connection's lock when no read pool is configured, in nanoseconds.
+     */
+    public long getReadLockHoldNanos() {
+        return readLockHoldNanos.sum();
+    }
+
+    /**
+     * @return The number of write operations executed by the writer thread.
+     */
+    public long getWriteCount() {
+        return writer == null ? 0L : writer.getOperationCount();
+    }
+
+    /**
+     * Closes the read pool, the writer and its callback threads, and the writer connection, releasing the file lock.
      */
     @Override
     public void close() {
+        readExecutor.shutdown();
+        try {
+            readExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer != null) writer.close();
+        callbackExecutor.shutdown();
+        try {
+            callbackExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (MCEconomySQLiteStatements reader : openReaders) {
+            reader.close();
+            try { reader.connection().close(); } catch (SQLException e) { e.printStackTrace(); }
+        }
         synchronized (lock) {
+            if (writerStatements != null) writerStatements.close();
             try { if (conn != null) conn.close(); } catch (SQLException e) { e.printStackTrace(); }
         }
     }
-
-    /**
-     * Resolve the trusted column name for a currency type.
-     */
-    private String columnName(CurrencyType type) {
-        Objects.requireNonNull(type, "currency type");
-        return switch (type) {
-            case COIN -> "coin";
-            case COPPER -> "copper";
-            case SILVER -> "silver";
-            case GOLD -> "gold";
-        };
-    }
 }
@@ -0,0 +1,215 @@
+package io.github.mcengine.mceconomy.common.database.sqlite;
+
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Registry of reusable prepared statements bound to one long-lived SQLite connection.
+ * <p>
+ * The SQL of every operation is built once per {@link CurrencyType} when the class is loaded, and
+ * each statement is prepared on first use and then kept open, so callers only bind parameters and
+ * execute. An instance is not thread-safe: it must only be used by whoever currently owns its connection.
+ * </p>
+ */
+public final class MCEconomySQLiteStatements {
+
+    /**
+     * Statement kinds held by the registry.
+     */
+    public enum Operation {
+        /** Creates an empty account row if it is missing. */
+        ENSURE_ACCOUNT,
+        /** Reads one currency of an account. */
+        GET_COIN,
+        /** Reads every currency of an account. */
+        GET_ALL_COINS,
+        /** Upserts one currency of an account to an absolute value. */
+        SET_COIN,
+        /** Upserts one currency of an account by adding to it. */
+        ADD_COIN,
+        /** Subtracts from one currency of an account if the balance allows it. */
+        MINUS_COIN,
+        /** Upserts every currency of an account. */
+        SET_BALANCES
+    }
+
+    /**
+     * Number of account rows in one full batched lookup.
+     */
+    static final int LOOKUP_CHUNK_SIZE = 400;
+
+    /**
+     * Number of currencies, i.e. the stride between two operations in the lookup tables.
+     */
+    private static final int CURRENCIES = CurrencyType.values().length;
+
+    /**
+     * Precomputed SQL indexed by {@code operation.ordinal() * CURRENCIES + currency.ordinal()}.
+     */
+    private static final String[] SQL = new String[Operation.values().length * CURRENCIES];
+
+    /**
+     * Precomputed SQL of a full {@value #LOOKUP_CHUNK_SIZE}-row lookup per currency ordinal.
+     */
+    private static final String[] LOOKUP_SQL = new String[CURRENCIES];
+
+    static {
+        for (CurrencyType type : CurrencyType.values()) {
+            String col = columnName(type);
+            for (Operation op : Operation.values()) {
+                SQL[op.ordinal() * CURRENCIES + type.ordinal()] = switch (op) {
+                    case ENSURE_ACCOUNT -> "INSERT OR IGNORE INTO economy_accounts (account_uuid, account_type) VALUES (?, ?)";
+                    case GET_COIN -> "SELECT " + col + " FROM economy_accounts WHERE account_uuid = ? AND account_type = ?";
+                    case GET_ALL_COINS -> "SELECT coin, copper, silver, gold FROM economy_accounts WHERE account_uuid = ? AND account_type = ?";
+                    case SET_COIN -> "INSERT INTO economy_accounts (account_uuid, account_type, " + col + ") VALUES (?, ?, ?) " +
+                                     "ON CONFLICT (account_uuid, account_type) DO UPDATE SET " + col + " = excluded." + col;
+                    case ADD_COIN -> "INSERT INTO economy_accounts (account_uuid, account_type, " + col + ") VALUES (?, ?, ?) " +
+                                     "ON CONFLICT (account_uuid, account_type) DO UPDATE SET " + col + " = " + col + " + excluded." + col;
+                    case MINUS_COIN -> "UPDATE economy_accounts SET " + col + " = " + col + " - ? " +
+                                       "WHERE account_uuid = ? AND account_type = ? AND " + col + " >= ?";
+                    case SET_BALANCES -> "INSERT INTO economy_accounts (account_uuid, account_type, coin, copper, silver, gold) " +
+                                         "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (account_uuid, account_type) DO UPDATE SET " +
+                                         "coin = excluded.coin, copper = excluded.copper, silver = excluded.silver, gold = excluded.gold";
+                };
+            }
+            LOOKUP_SQL[type.ordinal()] = lookupSql(type, LOOKUP_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * The connection owning every statement.
+     */
+    private final Connection connection;
+
+    /**
+     * Prepared statements, lazily filled, using the same indexing as {@link #SQL}.
+     */
+    private final PreparedStatement[] statements = new PreparedStatement[SQL.length];
+
+    /**
+     * Prepared full-chunk lookups per currency ordinal.
+     */
+    private final PreparedStatement[] lookups = new PreparedStatement[CURRENCIES];
+
+    /**
+     * Creates an empty registry for a connection.
+     *
+     * @param connection The long-lived connection to prepare statements on.
+     */
+    public MCEconomySQLiteStatements(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return The connection the statements belong to.
+     */
+    public Connection connection() {
+        return connection;
+    }
+
+    /**
+     * Returns the prepared statement of an operation that does not depend on a currency.
+     *
+     * @param operation The operation.
+     * @return The reusable statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement get(Operation operation) throws SQLException {
+        return get(operation, CurrencyType.COIN);
+    }
+
+    /**
+     * Returns the prepared statement of an operation for one currency.
+     *
+     * @param operation The operation.
+     * @param coinType  The currency type.
+     * @return The reusable statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement get(Operation operation, CurrencyType coinType) throws SQLException {
+        int index = operation.ordinal() * CURRENCIES + coinType.ordinal();
+        PreparedStatement statement = statements[index];
+        if (statement == null) {
+            statement = connection.prepareStatement(SQL[index]);
+            statements[index] = statement;
+        }
+        return statement;
+    }
+
+    /**
+     * Returns a statement looking up {@code rows} accounts at once.
+     * Full chunks reuse a cached statement; shorter ones are prepared on demand and must be closed by the caller.
+     *
+     * @param coinType The currency type.
+     * @param rows     The number of {@code (uuid, type)} rows to bind.
+     * @return The statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement lookup(CurrencyType coinType, int rows) throws SQLException {
+        if (rows != LOOKUP_CHUNK_SIZE) return connection.prepareStatement(lookupSql(coinType, rows));
+        PreparedStatement statement = lookups[coinType.ordinal()];
+        if (statement == null) {
+            statement = connection.prepareStatement(LOOKUP_SQL[coinType.ordinal()]);
+            lookups[coinType.ordinal()] = statement;
+        }
+        return statement;
+    }
+
+    /**
+     * Checks whether a statement returned by {@link #lookup} is cached and must stay open.
+     *
+     * @param statement The statement.
+     * @return true if the registry owns the statement.
+     */
+    public boolean isCached(PreparedStatement statement) {
+        for (PreparedStatement cached : lookups) {
+            if (cached == statement) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Closes every prepared statement; the connection itself stays open.
+     */
+    public void close() {
+        closeAll(statements);
+        closeAll(lookups);
+    }
+
+    private static void closeAll(PreparedStatement[] prepared) {
+        for (int i = 0; i < prepared.length; i++) {
+            if (prepared[i] == null) continue;
+            try { prepared[i].close(); } catch (SQLException e) { e.printStackTrace(); }
+            prepared[i] = null;
+        }
+    }
+
+    /**
+     * Builds the batched lookup SQL for a number of rows.
+     */
+    private static String lookupSql(CurrencyType type, int rows) {
+        StringBuilder sb = new StringBuilder(96 + rows * 8);
+        sb.append("SELECT account_uuid, account_type, ").append(columnName(type))
+          .append(" FROM economy_accounts WHERE (account_uuid, account_type) IN (");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("(?, ?)");
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Resolve the trusted column name for a currency type.
+     */
+    private static String columnName(CurrencyType type) {
+        return switch (type) {
+            case COIN -> "coin";
+            case COPPER -> "copper";
+            case SILVER -> "silver";
+            case GOLD -> "gold";
+        };
+    }
+}
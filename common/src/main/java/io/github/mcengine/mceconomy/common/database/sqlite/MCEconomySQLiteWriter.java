@@ -0,0 +1,299 @@
+package io.github.mcengine.mceconomy.common.database.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single writer thread with group commit for the SQLite backend.
+ * <p>
+ * Write operations are queued and executed by one dedicated thread. The thread drains up to
+ * {@code maxBatch} pending operations, waiting at most {@code maxLatency} for more to arrive,
+ * and runs the whole group inside one transaction so the group pays a single fsync.
+ * Each operation runs inside its own savepoint, so a failing operation is rolled back alone.
+ * Callers' futures complete only after the group has been committed, on a separate completion
+ * executor: dependent stages never run on the writer thread, so a slow callback cannot stall writes
+ * and a callback waiting for another write cannot deadlock the writer.
+ * </p>
+ */
+public class MCEconomySQLiteWriter {
+
+    /**
+     * A write operation executed on the writer connection inside a group transaction.
+     */
+    @FunctionalInterface
+    public interface WriteOperation {
+        /**
+         * @param statements The writer connection's statements, with auto-commit disabled.
+         * @return The operation result reported to the caller.
+         * @throws SQLException If the operation fails; only this operation is rolled back.
+         */
+        boolean execute(MCEconomySQLiteStatements statements) throws SQLException;
+    }
+
+    /**
+     * A queued operation together with the future completed after its group commits.
+     */
+    private static final class PendingWrite {
+        private final WriteOperation operation;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingWrite(WriteOperation operation) {
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Marker placed on the queue by {@link #close()} to stop the writer thread.
+     */
+    private static final PendingWrite STOP = new PendingWrite(statements -> false);
+
+    /**
+     * Reusable statements of the writer connection.
+     */
+    private final MCEconomySQLiteStatements statements;
+
+    /**
+     * The writer connection.
+     */
+    private final Connection connection;
+
+    /**
+     * Lock shared with readers that fall back to the writer connection.
+     */
+    private final Object lock;
+
+    /**
+     * Executor completing callers' futures, and therefore running their dependent stages.
+     */
+    private final Executor completions;
+
+    /**
+     * Pending operations in submission order.
+     */
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * Maximum number of operations committed together.
+     */
+    private final int maxBatch;
+
+    /**
+     * Maximum time spent waiting for more operations once a group has started.
+     */
+    private final long maxLatencyNanos;
+
+    /**
+     * Guards {@link #running} against concurrent submissions during shutdown.
+     */
+    private final Object stateLock = new Object();
+
+    /**
+     * Whether new operations are still accepted.
+     */
+    private boolean running = true;
+
+    /**
+     * The dedicated writer thread.
+     */
+    private final Thread thread;
+
+    /**
+     * Total time the writer held {@link #lock}, in nanoseconds.
+     */
+    private final LongAdder lockHoldNanos = new LongAdder();
+
+    /**
+     * Number of committed groups.
+     */
+    private final LongAdder groups = new LongAdder();
+
+    /**
+     * Number of executed operations.
+     */
+    private final LongAdder operations = new LongAdder();
+
+    /**
+     * Creates and starts a new writer.
+     *
+     * @param statements       The reusable statements of the writer connection.
+     * @param lock             The lock guarding the writer connection.
+     * @param maxBatch         Maximum number of operations per commit.
+     * @param maxLatencyMillis Maximum time to wait for a group to fill, in milliseconds.
+     * @param completions      Executor completing callers' futures; must not be limited to one thread,
+     *                         since a dependent stage may wait for a later write.
+     */
+    public MCEconomySQLiteWriter(MCEconomySQLiteStatements statements, Object lock, int maxBatch, long maxLatencyMillis,
+                                 Executor completions) {
+        this.statements = statements;
+        this.connection = statements.connection();
+        this.lock = lock;
+        this.completions = completions;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, maxLatencyMillis));
+        this.thread = new Thread(this::run, "MCEconomy-SQLiteWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues a write operation.
+     *
+     * @param operation The operation to run on the writer connection.
+     * @return A future completing with the operation result once its group has committed,
+     *         or false if the group failed or the writer is closed.
+     */
+    public CompletableFuture<Boolean> submit(WriteOperation operation) {
+        PendingWrite pending = new PendingWrite(operation);
+        synchronized (stateLock) {
+            if (!running) return CompletableFuture.completedFuture(false);
+            queue.add(pending);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Stops accepting operations, commits everything already queued and stops the writer thread.
+     */
+    public void close() {
+        synchronized (stateLock) {
+            if (!running) return;
+            running = false;
+            queue.add(STOP);
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Total time the writer thread held the connection lock, in nanoseconds.
+     */
+    public long getLockHoldNanos() {
+        return lockHoldNanos.sum();
+    }
+
+    /**
+     * @return Number of groups committed so far.
+     */
+    public long getCommitCount() {
+        return groups.sum();
+    }
+
+    /**
+     * @return Number of write operations executed so far.
+     */
+    public long getOperationCount() {
+        return operations.sum();
+    }
+
+    /**
+     * Writer loop: takes the first pending operation, gathers a group and commits it.
+     */
+    private void run() {
+        List<PendingWrite> group = new ArrayList<>(maxBatch);
+        boolean stopping = false;
+        while (!stopping) {
+            PendingWrite first;
+            try {
+                first = queue.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == STOP) break;
+
+            group.add(first);
+            stopping = collect(group);
+            commit(group);
+            group.clear();
+        }
+    }
+
+    /**
+     * Adds further pending operations to the group until it is full or the latency budget is spent.
+     *
+     * @return true if the stop marker was reached.
+     */
+    private boolean collect(List<PendingWrite> group) {
+        long deadline = System.nanoTime() + maxLatencyNanos;
+        while (group.size() < maxBatch) {
+            PendingWrite next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                try {
+                    next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+                if (next == null) return false;
+            }
+            if (next == STOP) return true;
+            group.add(next);
+        }
+        return false;
+    }
+
+    /**
+     * Runs a group inside one transaction and hands the completion of every caller's future to the completion executor.
+     */
+    private void commit(List<PendingWrite> group) {
+        boolean[] results = new boolean[group.size()];
+        synchronized (lock) {
+            long lockedAt = System.nanoTime();
+            try {
+                boolean prevAutoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    for (int i = 0; i < results.length; i++) {
+                        Savepoint savepoint = connection.setSavepoint();
+                        try {
+                            results[i] = group.get(i).operation.execute(statements);
+                            connection.releaseSavepoint(savepoint);
+                        } catch (SQLException | RuntimeException e) {
+                            e.printStackTrace();
+                            connection.rollback(savepoint);
+                            results[i] = false;
+                        }
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(prevAutoCommit);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                results = new boolean[group.size()];
+            }
+            lockHoldNanos.add(System.nanoTime() - lockedAt);
+        }
+        groups.increment();
+        operations.add(group.size());
+
+        List<PendingWrite> done = List.copyOf(group);
+        boolean[] outcome = results;
+        Runnable complete = () -> {
+            for (int i = 0; i < outcome.length; i++) {
+                done.get(i).result.complete(outcome[i]);
+            }
+        };
+        try {
+            completions.execute(complete);
+        } catch (RejectedExecutionException e) {
+            complete.run();
+        }
+    }
+}
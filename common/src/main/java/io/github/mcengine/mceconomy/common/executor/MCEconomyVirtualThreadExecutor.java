@@ -0,0 +1,120 @@
+package io.github.mcengine.mceconomy.common.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor running every task on its own virtual thread, with at most a fixed number running at once.
+ * <p>
+ * Tasks beyond the limit park their virtual thread on a semaphore instead of queueing on a shared
+ * platform pool, so bursts of thousands of economy calls neither block the caller nor compete with
+ * other plugins for the server's async scheduler. The limit should match the database connection pool:
+ * more concurrent tasks would only wait for a connection. It does not protect the virtual thread
+ * scheduler from JDBC drivers that pin their carrier thread while blocked; a limit above the carrier
+ * parallelism still lets such calls occupy every carrier.
+ * </p>
+ * <p>
+ * An accepted task always runs, so the future it completes is never left pending: a task whose
+ * thread is interrupted while waiting for a permit runs without one, with the interrupt flag set,
+ * and typically fails fast. After {@link #shutdown} new tasks are rejected with a
+ * {@link java.util.concurrent.RejectedExecutionException}.
+ * </p>
+ */
+public class MCEconomyVirtualThreadExecutor implements Executor {
+
+    /**
+     * Starts one virtual thread per task.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * Permits for concurrently running tasks.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The configured concurrency limit.
+     */
+    private final int maxConcurrency;
+
+    /**
+     * Constructs a new virtual thread executor.
+     *
+     * @param maxConcurrency The maximum number of tasks running at once (at least 1).
+     */
+    public MCEconomyVirtualThreadExecutor(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("MCEconomy-DB-", 0).factory());
+    }
+
+    /**
+     * Starts the task on a new virtual thread, which waits for a permit before running it.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException If the executor has been shut down.
+     */
+    @Override
+    public void execute(Runnable task) {
+        threads.execute(() -> {
+            boolean acquired;
+            try {
+                permits.acquire();
+                acquired = true;
+            } catch (InterruptedException e) {
+                // Run anyway so the caller's future completes; the task sees the interrupt.
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            try {
+                task.run();
+            } finally {
+                if (acquired) permits.release();
+            }
+        });
+    }
+
+    /**
+     * @return The configured concurrency limit.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return The number of tasks currently running.
+     */
+    public int getRunningCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return An estimate of the number of tasks waiting for a permit.
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Stops accepting tasks and waits up to the timeout for submitted tasks to finish.
+     * Tasks still running or waiting after the timeout are interrupted, which makes waiting tasks
+     * run immediately, and get a short grace period to complete their futures.
+     *
+     * @param timeoutMillis Maximum time to wait in milliseconds.
+     * @return true if every task finished.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        threads.shutdown();
+        try {
+            if (threads.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) return true;
+            threads.shutdownNow();
+            return threads.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            threads.shutdownNow();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
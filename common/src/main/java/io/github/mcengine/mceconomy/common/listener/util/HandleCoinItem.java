@@ -1,5 +1,6 @@
 package io.github.mcengine.mceconomy.common.listener.util;
 
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
 import net.kyori.adventure.text.Component;
@@ -70,7 +71,7 @@ public class HandleCoinItem implements Listener {
         item.subtract(1);
 
         // Add money to player
-        provider.addCoin(event.getPlayer().getUniqueId().toString(), "PLAYER", currency, value).thenAccept(success -> {
+        provider.addCoin(event.getPlayer().getUniqueId().toString(), AccountType.PLAYER, currency, value).thenAccept(success -> {
             if (success) {
                 event.getPlayer().sendMessage(Component.translatable("mcengine.mceconomy.msg.success.redeem")
                     .args(
@@ -1,5 +1,6 @@
 package io.github.mcengine.mceconomy.common.listener.util;
 
+import io.github.mcengine.mceconomy.api.account.AccountType;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
@@ -37,7 +38,7 @@ public class HandleEnsurePlayerExist implements Listener {
         
         // ensureAccountExist is asynchronous inside the MCEconomyProvider.
         // Updated: Added "PLAYER" account type to match the new API.
-        provider.ensureAccountExist(uuid, "PLAYER").thenAccept(success -> {
+        provider.ensureAccountExist(uuid, AccountType.PLAYER).thenAccept(success -> {
             if (!success) {
                 // Log warning using Bukkit logger instead of System.err
                 Bukkit.getLogger().warning("[MCEconomy] Failed to ensure database record for player: " + playerName);
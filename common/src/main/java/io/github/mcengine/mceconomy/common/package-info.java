@@ -8,7 +8,11 @@
  * <h2>Key Components:</h2>
  * <ul>
  *   <li>Core economy provider implementation</li>
- *   <li>Database implementations (MySQL, SQLite)</li>
+ *   <li>Database implementations (MySQL, sharded MySQL, SQLite, in-memory, memory-mapped)</li>
+ *   <li>Asynchronous adapter for blocking database implementations</li>
+ *   <li>Database caching layers (write-behind, read-through, delta accumulator)</li>
+ *   <li>Memory-mapped transaction journal</li>
+ *   <li>Streaming account export and import</li>
  *   <li>Command handling and management</li>
  *   <li>Event listener management</li>
  *   <li>Tab completion utilities</li>
@@ -3,6 +3,7 @@ package io.github.mcengine.mceconomy.common.tabcompleter;
 import io.github.mcengine.mceconomy.api.command.IEconomyCommandHandle;
 import io.github.mcengine.mceconomy.api.enums.CurrencyType;
 import io.github.mcengine.mceconomy.common.command.MCEconomyCommandManager;
+import io.github.mcengine.mceconomy.common.command.util.HandleAdd;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -96,6 +97,17 @@ public class MCEconomyTabCompleter implements TabCompleter {
                     break;
 
                 case "add":
+                    // /economy add <player|@online> <coin type> <amount>
+                    if (args.length == 2) {
+                        List<String> targets = Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toCollection(ArrayList::new));
+                        targets.add(HandleAdd.ONLINE_TARGET);
+                        return filter(targets, args[1]);
+                    }
+                    if (args.length == 3) {
+                        return filter(coinTypes, args[2]);
+                    }
+                    break;
+
                 case "set":
                 case "minus":
                 case "send":
@@ -0,0 +1,230 @@
+package io.github.mcengine.mceconomy.common.database.cache;
+
+import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
+import io.github.mcengine.mceconomy.api.enums.CurrencyType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races a background flush against foreground calls on the same account.
+ */
+class MCEconomyDeltaAccumulatorTest {
+
+    private static final String UUID = "00000000-0000-0000-0000-000000000001";
+    private static final String TYPE = "PLAYER";
+
+    private GatedDB db;
+    private MCEconomyDeltaAccumulator accumulator;
+    private ExecutorService threads;
+
+    @BeforeEach
+    void setUp() {
+        db = new GatedDB();
+        // The background flush never runs during a test; flushes are triggered explicitly.
+        accumulator = new MCEconomyDeltaAccumulator(db, Logger.getLogger("MCEconomyDeltaAccumulatorTest"), 3_600_000L);
+        threads = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        db.gate = null;
+        threads.shutdownNow();
+        threads.awaitTermination(5, TimeUnit.SECONDS);
+        accumulator.close();
+    }
+
+    /**
+     * Starts a flush whose database write blocks until the returned latch is released.
+     */
+    private CountDownLatch blockFlush() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        db.entered = entered;
+        db.gate = release;
+        threads.execute(accumulator::flush);
+        assertTrue(entered.await(5, TimeUnit.SECONDS), "flush did not reach the database");
+        return release;
+    }
+
+    @Test
+    void withdrawalWaitsForCreditBeingFlushed() throws Exception {
+        assertTrue(accumulator.addCoin(UUID, TYPE, CurrencyType.COIN, 100));
+        CountDownLatch release = blockFlush();
+
+        Future<Boolean> minus = threads.submit(() -> accumulator.minusCoin(UUID, TYPE, CurrencyType.COIN, 100));
+        Thread.sleep(100);
+        assertFalse(minus.isDone(), "withdrawal ran while the credit was in flight");
+
+        release.countDown();
+        assertTrue(minus.get(5, TimeUnit.SECONDS));
+        assertEquals(0, db.stored(CurrencyType.COIN));
+    }
+
+    @Test
+    void readIncludesCreditBeingFlushed() throws Exception {
+        assertTrue(accumulator.addCoin(UUID, TYPE, CurrencyType.COIN, 100));
+        CountDownLatch release = blockFlush();
+
+        Future<Integer> read = threads.submit(() -> accumulator.getCoin(UUID, TYPE, CurrencyType.COIN));
+        Thread.sleep(100);
+        release.countDown();
+        assertEquals(100, read.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void setIsNotOverwrittenByCreditBeingFlushed() throws Exception {
+        assertTrue(accumulator.addCoin(UUID, TYPE, CurrencyType.COIN, 100));
+        CountDownLatch release = blockFlush();
+
+        Future<Boolean> set = threads.submit(() -> accumulator.setCoin(UUID, TYPE, CurrencyType.COIN, 500));
+        Thread.sleep(100);
+        release.countDown();
+        assertTrue(set.get(5, TimeUnit.SECONDS));
+
+        accumulator.flush();
+        assertEquals(500, db.stored(CurrencyType.COIN));
+        assertEquals(500, accumulator.getCoin(UUID, TYPE, CurrencyType.COIN));
+    }
+
+    @Test
+    void setIsNotOverwrittenByFailedFlush() throws Exception {
+        assertTrue(accumulator.addCoin(UUID, TYPE, CurrencyType.COIN, 100));
+        db.failAdds.set(true);
+        CountDownLatch release = blockFlush();
+
+        Future<Boolean> set = threads.submit(() -> accumulator.setCoin(UUID, TYPE, CurrencyType.COIN, 500));
+        Thread.sleep(100);
+        release.countDown();
+        assertTrue(set.get(5, TimeUnit.SECONDS));
+
+        db.failAdds.set(false);
+        accumulator.flush();
+        assertEquals(500, db.stored(CurrencyType.COIN));
+    }
+
+    @Test
+    void creditSurvivesFailedSet() {
+        assertTrue(accumulator.addCoin(UUID, TYPE, CurrencyType.COIN, 100));
+        db.failSets.set(true);
+        assertFalse(accumulator.setCoin(UUID, TYPE, CurrencyType.COIN, -1));
+        assertEquals(100, accumulator.getCoin(UUID, TYPE, CurrencyType.COIN));
+
+        db.failSets.set(false);
+        accumulator.flush();
+        assertEquals(100, db.stored(CurrencyType.COIN));
+    }
+
+    @Test
+    void concurrentFlushNeverFailsCoveredWithdrawal() throws Exception {
+        int workers = 4;
+        int iterations = 5_000;
+        AtomicBoolean running = new AtomicBoolean(true);
+        CompletableFuture<Void> flusher = CompletableFuture.runAsync(() -> {
+            while (running.get()) accumulator.flush();
+        }, threads);
+
+        CompletableFuture<?>[] work = new CompletableFuture<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            work[w] = CompletableFuture.supplyAsync(() -> {
+                int failed = 0;
+                for (int i = 0; i < iterations; i++) {
+                    // Every worker deposits before it withdraws, so the merged balance always covers the withdrawal.
+                    if (!accumulator.addCoin(UUID, TYPE, CurrencyType.COIN, 1)) failed++;
+                    if (!accumulator.minusCoin(UUID, TYPE, CurrencyType.COIN, 1)) failed++;
+                }
+                return failed;
+            }, threads);
+        }
+        for (CompletableFuture<?> future : work) assertEquals(0, future.get(30, TimeUnit.SECONDS));
+        running.set(false);
+        flusher.get(5, TimeUnit.SECONDS);
+
+        accumulator.flush();
+        assertEquals(0, db.stored(CurrencyType.COIN));
+    }
+
+    /**
+     * Single-account in-memory database whose credits can be held at a gate and whose writes can be made to fail.
+     */
+    private static final class GatedDB implements IMCEconomyDB {
+        private final Map<CurrencyType, Integer> balances = new HashMap<>();
+        private final AtomicBoolean failAdds = new AtomicBoolean();
+        private final AtomicBoolean failSets = new AtomicBoolean();
+        private volatile CountDownLatch entered;
+        private volatile CountDownLatch gate;
+
+        private synchronized int stored(CurrencyType coinType) {
+            return balances.getOrDefault(coinType, 0);
+        }
+
+        @Override
+        public synchronized int getCoin(String accountUuid, String accountType, CurrencyType coinType) {
+            return stored(coinType);
+        }
+
+        @Override
+        public synchronized boolean setCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+            if (failSets.get()) return false;
+            balances.put(coinType, amount);
+            return true;
+        }
+
+        @Override
+        public boolean addCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+            CountDownLatch wait = gate;
+            if (wait != null) {
+                gate = null;
+                entered.countDown();
+                try {
+                    wait.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failAdds.get()) return false;
+            synchronized (this) {
+                balances.merge(coinType, amount, Integer::sum);
+                return true;
+            }
+        }
+
+        @Override
+        public synchronized boolean minusCoin(String accountUuid, String accountType, CurrencyType coinType, int amount) {
+            int current = stored(coinType);
+            if (current < amount) return false;
+            balances.put(coinType, current - amount);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean sendCoin(String senderUuid, String senderType, String receiverUuid, String receiverType,
+                                             CurrencyType coinType, int amount) {
+            return senderUuid.equals(receiverUuid) && senderType.equals(receiverType) && stored(coinType) >= amount;
+        }
+
+        @Override
+        public boolean ensureAccountExist(String accountUuid, String accountType) {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
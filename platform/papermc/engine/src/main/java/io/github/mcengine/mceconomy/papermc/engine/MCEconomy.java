@@ -1,12 +1,25 @@
 package io.github.mcengine.mceconomy.papermc.engine;
 
+import io.github.mcengine.mceconomy.api.database.IMCEconomyAsyncDB;
 import io.github.mcengine.mceconomy.api.database.IMCEconomyDB;
 import io.github.mcengine.mcextension.common.MCExtensionManager;
 import io.github.mcengine.mceconomy.common.MCEconomyProvider;
 import io.github.mcengine.mceconomy.common.command.MCEconomyCommandManager;
 import io.github.mcengine.mceconomy.common.command.util.*;
+import io.github.mcengine.mceconomy.common.database.MCEconomyAsyncAdapter;
+import io.github.mcengine.mceconomy.common.database.MCEconomyOrderedDB;
+import io.github.mcengine.mceconomy.common.database.cache.MCEconomyDeltaAccumulator;
+import io.github.mcengine.mceconomy.common.database.cache.MCEconomyReadCache;
+import io.github.mcengine.mceconomy.common.database.cache.MCEconomyWriteBehindCache;
+import io.github.mcengine.mceconomy.common.database.journal.MCEconomyJournal;
+import io.github.mcengine.mceconomy.common.database.journal.MCEconomyJournalDB;
+import io.github.mcengine.mceconomy.common.database.mapped.MCEconomyMapped;
+import io.github.mcengine.mceconomy.common.database.memory.MCEconomyMemory;
 import io.github.mcengine.mceconomy.common.database.mysql.MCEconomyMySQL;
+import io.github.mcengine.mceconomy.common.database.mysql.MCEconomyMySQLRetries;
+import io.github.mcengine.mceconomy.common.database.mysql.MCEconomyMySQLSharded;
 import io.github.mcengine.mceconomy.common.database.sqlite.MCEconomySQLite;
+import io.github.mcengine.mceconomy.common.executor.MCEconomyVirtualThreadExecutor;
 import io.github.mcengine.mceconomy.common.listener.MCEconomyListenerManager;
 import io.github.mcengine.mceconomy.common.listener.util.*;
 import io.github.mcengine.mceconomy.common.tabcompleter.MCEconomyTabCompleter;
@@ -14,10 +27,12 @@ import io.github.mcengine.mcutil.MCUtil;
 import io.papermc.paper.plugin.configuration.PluginMeta;
 import org.bukkit.Bukkit;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 /**
@@ -31,6 +46,36 @@ public class MCEconomy extends JavaPlugin {
      */
     private MCEconomyProvider provider;
 
+    /**
+     * The blocking database behind the provider, including the enabled caching layers.
+     */
+    private IMCEconomyDB db;
+
+    /**
+     * The backend below every caching layer, used by export and, with the ordering layer, by import.
+     */
+    private IMCEconomyDB backendDb;
+
+    /**
+     * Deadlock retry counters of the MySQL backend, otherwise null.
+     */
+    private MCEconomyMySQLRetries retries;
+
+    /**
+     * The write-behind cache when {@code db.cache.write-behind.enabled} is set, otherwise null.
+     */
+    private MCEconomyWriteBehindCache writeBehindCache;
+
+    /**
+     * The read cache when {@code db.cache.read.enabled} is set, otherwise null.
+     */
+    private MCEconomyReadCache readCache;
+
+    /**
+     * The delta accumulator when {@code db.accumulator.enabled} is set, otherwise null.
+     */
+    private MCEconomyDeltaAccumulator accumulator;
+
     /**
      * The manager handling subcommand registration and execution.
      */
@@ -51,6 +96,17 @@ public class MCEconomy extends JavaPlugin {
      */
     private Executor executor;
 
+    /**
+     * The virtual thread executor when {@code db.executor.mode} is {@code virtual}, otherwise null.
+     * Reserved for database calls, since its concurrency limit is sized to the connection pool.
+     */
+    private MCEconomyVirtualThreadExecutor virtualExecutor;
+
+    /**
+     * The ordering layer when {@code db.ordering.enabled} is set, otherwise null.
+     */
+    private MCEconomyOrderedDB orderedDb;
+
     /**
      * Called when the plugin is enabled.
      * Initializes configuration, core components, services, and registers handlers.
@@ -61,8 +117,17 @@ public class MCEconomy extends JavaPlugin {
         saveDefaultConfig();
 
         // 2. Initialize Core Components
-        IMCEconomyDB db = setupDatabase();
+        try {
+            this.db = setupDatabase();
+        } catch (IllegalStateException e) {
+            // Running on an empty store would overwrite the balances that failed to load
+            getLogger().severe("[MCEconomy] " + e.getMessage() + ", disabling the plugin");
+            e.printStackTrace();
+            Bukkit.getPluginManager().disablePlugin(this);
+            return;
+        }
         this.executor = setupExecutor();
+        Executor dbExecutor = setupDatabaseExecutor();
 
         // Managers must be initialized before the provider now
         this.commandManager = new MCEconomyCommandManager();
@@ -72,7 +137,12 @@ public class MCEconomy extends JavaPlugin {
         this.extensionManager = new MCExtensionManager();
 
         // Inject everything into the Provider
-        this.provider = new MCEconomyProvider(db, this.executor, commandManager, listenerManager);
+        IMCEconomyAsyncDB asyncDb = MCEconomyAsyncAdapter.of(db, dbExecutor);
+        if (getConfig().getBoolean("db.ordering.enabled", true)) {
+            asyncDb = orderedDb = new MCEconomyOrderedDB(asyncDb, getConfig().getInt("db.ordering.lanes", 256));
+        }
+        this.provider = new MCEconomyProvider(asyncDb, commandManager, listenerManager);
+        provider.setRetries(retries);
 
         // 3. Register Managers as Bukkit Services
         Bukkit.getServicesManager().register(MCEconomyProvider.class, provider, this, ServicePriority.Normal);
@@ -104,13 +174,101 @@ public class MCEconomy extends JavaPlugin {
 
     /**
      * Helper to determine the correct database implementation.
+     * Wraps the backend in the optional caching layers enabled in the configuration.
      */
     private IMCEconomyDB setupDatabase() {
         String dbType = getConfig().getString("db.type", "sqlite").toLowerCase();
+        IMCEconomyDB db;
         if ("mysql".equals(dbType)) {
-            return new MCEconomyMySQL(this);
+            boolean sharded = getConfig().getConfigurationSection("db.mysql.shards") != null;
+            db = sharded ? new MCEconomyMySQLSharded(this) : new MCEconomyMySQL(this);
+        } else if ("memory".equals(dbType)) {
+            db = new MCEconomyMemory(this);
+        } else if ("mapped".equals(dbType)) {
+            db = new MCEconomyMapped(this);
+        } else {
+            db = new MCEconomySQLite(this);
+        }
+        if (db instanceof MCEconomyMySQLRetries counters) this.retries = counters;
+
+        // The journal sits directly on the backend so it only marks mutations applied once they are committed
+        if (getConfig().getBoolean("db.journal.enabled", false)) {
+            MCEconomyJournal journal = null;
+            try {
+                journal = new MCEconomyJournal(this);
+                journal.recover();
+                // Replayed onto the bare backend, before any cache exists, so nothing journals it again
+                long replayFrom = getConfig().getLong("db.journal.replay-from", 0L);
+                if (replayFrom > 0) {
+                    long replayed = journal.replayOnce(db, replayFrom);
+                    if (replayed < 0) {
+                        getLogger().info("[MCEconomy] Journal was already replayed from sequence " + replayFrom +
+                                         "; remove db.journal.replay-from");
+                    } else {
+                        getLogger().warning("[MCEconomy] Replayed " + replayed + " journaled mutations from sequence " + replayFrom);
+                    }
+                }
+                db = new MCEconomyJournalDB(db, journal);
+            } catch (IOException e) {
+                // Running without the journal that was asked for would leave mutations unrecorded
+                if (journal != null) journal.close();
+                db.close();
+                throw new IllegalStateException("Unable to open or replay the transaction journal", e);
+            }
+        }
+        this.backendDb = db;
+        if (getConfig().getBoolean("db.cache.write-behind.enabled", false)) {
+            db = writeBehindCache = new MCEconomyWriteBehindCache(this, db);
+        }
+        if (getConfig().getBoolean("db.cache.read.enabled", false)) {
+            db = readCache = new MCEconomyReadCache(this, db);
+        }
+        if (getConfig().getBoolean("db.accumulator.enabled", false)) {
+            db = accumulator = new MCEconomyDeltaAccumulator(this, db);
         }
-        return new MCEconomySQLite(this);
+        return db;
+    }
+
+    /**
+     * Writes changes held by the caching layers to the backend and drops their cached balances.
+     * Export runs it before reading the backend, import before and after writing to it.
+     */
+    private void syncCaches() {
+        if (accumulator != null) accumulator.flush();
+        if (writeBehindCache != null) writeBehindCache.invalidateAll();
+        if (readCache != null) readCache.invalidateAll();
+    }
+
+    /**
+     * Runs a task that writes to the backend directly while no other database call runs.
+     * Calls queued before it finish first and calls queued after it wait, so no cached balance
+     * can be written over the task's writes; the caches are synchronized before and after.
+     */
+    private void runExclusive(Runnable task) {
+        orderedDb.exclusive(() -> CompletableFuture.runAsync(() -> {
+            syncCaches();
+            try {
+                task.run();
+            } finally {
+                syncCaches();
+            }
+        }, executor));
+    }
+
+    /**
+     * Helper to determine the executor database calls run on.
+     * With {@code db.executor.mode: virtual} database work runs on virtual threads owned by the plugin,
+     * otherwise on the platform executor.
+     */
+    private Executor setupDatabaseExecutor() {
+        if ("virtual".equalsIgnoreCase(getConfig().getString("db.executor.mode", "scheduler"))) {
+            int maxConcurrency = getConfig().getInt("db.executor.max-concurrency", 0);
+            if (maxConcurrency <= 0) maxConcurrency = defaultConcurrency();
+            this.virtualExecutor = new MCEconomyVirtualThreadExecutor(maxConcurrency);
+            getLogger().info("Running database work on virtual threads (max " + maxConcurrency + " concurrent)");
+            return virtualExecutor;
+        }
+        return executor;
     }
 
     /**
@@ -127,6 +285,25 @@ public class MCEconomy extends JavaPlugin {
         }
     }
 
+    /**
+     * Matches the virtual thread concurrency limit to the connections the configured database can serve at once.
+     */
+    private int defaultConcurrency() {
+        String dbType = getConfig().getString("db.type", "sqlite").toLowerCase();
+        if ("mysql".equals(dbType)) {
+            int poolSize = getConfig().getBoolean("db.mysql.pool.adaptive.enabled", false)
+                    ? getConfig().getInt("db.mysql.pool.adaptive.max-size", 50)
+                    : getConfig().getInt("db.mysql.pool.maximum-pool-size", 10);
+            ConfigurationSection shards = getConfig().getConfigurationSection("db.mysql.shards");
+            int servers = shards == null ? 1 : Math.max(1, shards.getKeys(false).size());
+            return Math.max(1, poolSize) * servers;
+        }
+        if ("sqlite".equals(dbType)) {
+            return Math.max(1, getConfig().getInt("db.sqlite.read-pool-size", 4)) + 1;
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
     /**
      * Called when the plugin is disabled.
      * Ensures database connections and extensions are closed properly.
@@ -138,6 +315,14 @@ public class MCEconomy extends JavaPlugin {
             extensionManager.disableAllExtensions(this, this.executor);
         }
 
+        // Let queued calls reach the executor, then let them finish before the connections close
+        if (orderedDb != null && !orderedDb.drain(10000L)) {
+            getLogger().warning("[MCEconomy] Some queued database calls did not finish before shutdown");
+        }
+        if (virtualExecutor != null && !virtualExecutor.shutdown(10000L)) {
+            getLogger().warning("[MCEconomy] Some database calls did not finish before shutdown");
+        }
+
         // Shutdown database connections
         if (provider != null) {
             provider.shutdown();
@@ -156,6 +341,11 @@ public class MCEconomy extends JavaPlugin {
         commandManager.register("set", new HandleSet(this, provider));
         commandManager.register("send", new HandleSend(this, provider));
         commandManager.register("convert", new HandleConvert(this, provider));
+        commandManager.register("export", new HandleExport(this, backendDb, this::syncCaches, executor));
+        // Without the ordering layer nothing holds calls back, so imports go through the caching layers
+        commandManager.register("import", orderedDb != null
+                ? new HandleImport(this, backendDb, this::runExclusive)
+                : new HandleImport(this, db, executor));
     }
 
     /**